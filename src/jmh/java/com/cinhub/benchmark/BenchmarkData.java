@@ -0,0 +1,112 @@
+package com.cinhub.benchmark;
+
+import com.cinhub.dto.CategoryDTO;
+import com.cinhub.dto.DirectorDTO;
+import com.cinhub.dto.FilmCreateDTO;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.entity.Category;
+import com.cinhub.entity.Director;
+import com.cinhub.entity.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeux de données déterministes partagés par les benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String[] TITLE_WORDS = {
+            "nuit", "ville", "amour", "guerre", "ombre", "voyage", "silence", "retour",
+            "dernier", "rouge", "jardin", "fleuve", "secret", "hiver", "lumière", "mémoire"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static String title(int i) {
+        return "Film " + i + " " + TITLE_WORDS[i % TITLE_WORDS.length] + " " + TITLE_WORDS[(i / 7) % TITLE_WORDS.length];
+    }
+
+    static String synopsis(int i) {
+        return "Un récit de " + TITLE_WORDS[(i / 3) % TITLE_WORDS.length] + " et de "
+                + TITLE_WORDS[(i / 11) % TITLE_WORDS.length] + " tourné en " + (1950 + i % 70) + ".";
+    }
+
+    static Director director(long id) {
+        return Director.builder()
+                .idDirector(id)
+                .firstName("Agnès")
+                .lastName("Varda")
+                .nationality("Française")
+                .birthDate(LocalDate.of(1928, 5, 30))
+                .biography("Photographe puis cinéaste, figure de la Nouvelle Vague.")
+                .build();
+    }
+
+    static Category category(long id) {
+        return Category.builder()
+                .idCategory(id)
+                .name("Drame")
+                .description("Films dramatiques")
+                .build();
+    }
+
+    static Film film(long id, Director director, Category category) {
+        return Film.builder()
+                .idFilm(id)
+                .title(title((int) id))
+                .releaseYear(1950 + (int) (id % 70))
+                .duration(80 + (int) (id % 60))
+                .synopsis(synopsis((int) id))
+                .rating((id % 100) / 10.0)
+                .director(director)
+                .category(category)
+                .build();
+    }
+
+    static FilmCreateDTO filmCreateDTO(int i) {
+        return FilmCreateDTO.builder()
+                .title(title(i))
+                .releaseYear(1950 + i % 70)
+                .duration(80 + i % 60)
+                .synopsis(synopsis(i))
+                .rating((i % 100) / 10.0)
+                .directorId(1L)
+                .categoryId(1L)
+                .build();
+    }
+
+    static List<FilmDTO> filmDTOs(int size) {
+        DirectorDTO director = DirectorDTO.builder()
+                .idDirector(1L)
+                .firstName("Agnès")
+                .lastName("Varda")
+                .nationality("Française")
+                .birthDate(LocalDate.of(1928, 5, 30))
+                .biography("Photographe puis cinéaste, figure de la Nouvelle Vague.")
+                .fullName("Agnès Varda")
+                .build();
+        CategoryDTO category = CategoryDTO.builder()
+                .idCategory(1L)
+                .name("Drame")
+                .description("Films dramatiques")
+                .build();
+
+        List<FilmDTO> films = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            films.add(FilmDTO.builder()
+                    .idFilm((long) i)
+                    .title(title(i))
+                    .releaseYear(1950 + i % 70)
+                    .duration(80 + i % 60)
+                    .synopsis(synopsis(i))
+                    .rating((i % 100) / 10.0)
+                    .director(director)
+                    .category(category)
+                    .build());
+        }
+        return films;
+    }
+}
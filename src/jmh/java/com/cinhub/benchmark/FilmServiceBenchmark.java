@@ -0,0 +1,159 @@
+package com.cinhub.benchmark;
+
+import com.cinhub.config.AppConfig;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.PageResponse;
+import com.cinhub.service.FilmService;
+import com.cinhub.util.CursorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Chemins de lecture de FilmService sur une base H2 embarquée (mode MySQL) peuplée
+ * de 10k, 100k puis 1M films. Le contexte Spring complet est démarré pour mesurer
+ * requêtes, projections et index de recherche tels qu'en production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FilmServiceBenchmark {
+
+    private static final int DIRECTOR_COUNT = 1_000;
+    private static final int CATEGORY_COUNT = 20;
+    private static final int SEED_BATCH_SIZE = 5_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    private int filmCount;
+
+    private AnnotationConfigWebApplicationContext context;
+    private FilmService filmService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("spring.datasource.url",
+                "jdbc:h2:mem:bench" + filmCount + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        System.setProperty("spring.datasource.driver-class-name", "org.h2.Driver");
+        System.setProperty("spring.datasource.username", "sa");
+        System.setProperty("spring.datasource.password", "");
+        System.setProperty("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        // Scripts Flyway propres à MySQL : le schéma H2 est généré par Hibernate
+        System.setProperty("spring.flyway.enabled", "false");
+        System.setProperty("spring.jpa.hibernate.ddl-auto", "create");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("spring.jpa.properties.hibernate.format_sql", "false");
+
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(AppConfig.class);
+        context.refresh();
+
+        seed(context.getBean(JdbcTemplate.class));
+        // Les structures en mémoire (index, copie en colonnes, classements, facettes, filtres
+        // d'unicité) ont été construites sur une base vide au démarrage : même signal qu'au démarrage
+        context.publishEvent(new ContextRefreshedEvent(context));
+        filmService = context.getBean(FilmService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FilmDTO getFilmById() {
+        return filmService.getFilmById(randomFilmId());
+    }
+
+    @Benchmark
+    public PageResponse<FilmDTO> getFilmPage() {
+        long afterId = ThreadLocalRandom.current().nextLong(Math.max(1, filmCount - PAGE_SIZE));
+        return filmService.getAllFilms(CursorUtils.encode(afterId), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FilmDTO> searchFilmsByTitle() {
+        String word = BenchmarkData.TITLE_WORDS[ThreadLocalRandom.current().nextInt(BenchmarkData.TITLE_WORDS.length)];
+        return filmService.searchFilmsByTitle(word, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FilmDTO> getFilmsByDirector() {
+        return filmService.getFilmsByDirector(ThreadLocalRandom.current().nextLong(1, DIRECTOR_COUNT + 1));
+    }
+
+    private long randomFilmId() {
+        return ThreadLocalRandom.current().nextLong(1, filmCount + 1);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Date today = Date.valueOf(LocalDate.now());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO categories (name, description, created_at, updated_at, version) VALUES (?, ?, ?, ?, 0)",
+                IntStream.rangeClosed(1, CATEGORY_COUNT).boxed().toList(), SEED_BATCH_SIZE, (ps, i) -> {
+                    ps.setString(1, "Catégorie " + i);
+                    ps.setString(2, "Description " + i);
+                    ps.setDate(3, today);
+                    ps.setTimestamp(4, now);
+                });
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO directors (first_name, last_name, nationality, birth_date, biography, created_at, updated_at, version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+                IntStream.rangeClosed(1, DIRECTOR_COUNT).boxed().toList(), SEED_BATCH_SIZE, (ps, i) -> {
+                    ps.setString(1, "Prénom" + i);
+                    ps.setString(2, "Nom" + i);
+                    ps.setString(3, i % 2 == 0 ? "Française" : "Italienne");
+                    ps.setDate(4, Date.valueOf(LocalDate.of(1920 + i % 60, 1 + i % 12, 1 + i % 28)));
+                    ps.setString(5, "Biographie du réalisateur " + i);
+                    ps.setDate(6, today);
+                    ps.setTimestamp(7, now);
+                });
+
+        for (int from = 1; from <= filmCount; from += SEED_BATCH_SIZE) {
+            int to = Math.min(filmCount, from + SEED_BATCH_SIZE - 1);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO films (title, release_year, duration, synopsis, rating, director_id, category_id, created_at, updated_at, version) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                    IntStream.rangeClosed(from, to).boxed().toList(), SEED_BATCH_SIZE, (ps, i) -> {
+                        ps.setString(1, BenchmarkData.title(i));
+                        ps.setInt(2, 1950 + i % 70);
+                        ps.setInt(3, 80 + i % 60);
+                        ps.setString(4, BenchmarkData.synopsis(i));
+                        ps.setDouble(5, (i % 100) / 10.0);
+                        ps.setLong(6, 1 + i % DIRECTOR_COUNT);
+                        ps.setLong(7, 1 + i % CATEGORY_COUNT);
+                        ps.setDate(8, today);
+                        ps.setTimestamp(9, now);
+                    });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cinhub.benchmark;
+
+import com.cinhub.config.AppConfig;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.web.CachingJackson2HttpMessageConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sérialisation d'une réponse {@code List<FilmDTO>} : ObjectMapper et convertisseur d'origine
+ * (réflexion, ObjectWriter recréé à chaque écriture) face à ceux configurés par WebConfig
+ * (Blackbird, ObjectWriter en cache, tampons recyclés), plus le coût de la compression gzip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private static final Type FILM_LIST_TYPE = new ParameterizedTypeReference<List<FilmDTO>>() {
+    }.getType();
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectMapper baselineMapper;
+    private ObjectMapper objectMapper;
+    private MappingJackson2HttpMessageConverter baselineConverter;
+    private MappingJackson2HttpMessageConverter converter;
+    private List<FilmDTO> films;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        baselineMapper = new ObjectMapper();
+        baselineMapper.registerModule(new JavaTimeModule());
+        baselineMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        baselineConverter = new MappingJackson2HttpMessageConverter(baselineMapper);
+
+        objectMapper = new AppConfig(new StandardEnvironment()).objectMapper();
+        converter = new CachingJackson2HttpMessageConverter(objectMapper);
+
+        films = BenchmarkData.filmDTOs(size);
+        json = objectMapper.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] baselineSerializeFilmList() throws JsonProcessingException {
+        return baselineMapper.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] serializeFilmList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] baselineConverterWrite() throws IOException {
+        return write(baselineConverter);
+    }
+
+    @Benchmark
+    public byte[] converterWrite() throws IOException {
+        return write(converter);
+    }
+
+    @Benchmark
+    public byte[] gzipFilmList() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192, true)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] write(MappingJackson2HttpMessageConverter messageConverter) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        messageConverter.write(films, FILM_LIST_TYPE, MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsBytes();
+    }
+}
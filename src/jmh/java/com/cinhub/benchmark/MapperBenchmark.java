@@ -0,0 +1,78 @@
+package com.cinhub.benchmark;
+
+import com.cinhub.dto.CategoryDTO;
+import com.cinhub.dto.DirectorDTO;
+import com.cinhub.dto.FilmCreateDTO;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.entity.Category;
+import com.cinhub.entity.Director;
+import com.cinhub.entity.Film;
+import com.cinhub.mapper.CategoryMapper;
+import com.cinhub.mapper.DirectorMapper;
+import com.cinhub.mapper.FilmMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût unitaire des conversions entité <-> DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final DirectorMapper directorMapper = new DirectorMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private final FilmMapper filmMapper = new FilmMapper(directorMapper, categoryMapper);
+
+    private Director director;
+    private Category category;
+    private Film film;
+    private FilmCreateDTO filmCreateDTO;
+
+    @Setup
+    public void setUp() {
+        director = BenchmarkData.director(1L);
+        category = BenchmarkData.category(1L);
+        film = BenchmarkData.film(42L, director, category);
+        filmCreateDTO = BenchmarkData.filmCreateDTO(42);
+    }
+
+    @Benchmark
+    public FilmDTO filmToDTO() {
+        return filmMapper.toDTO(film);
+    }
+
+    @Benchmark
+    public Film filmToEntity() {
+        return filmMapper.toEntity(filmCreateDTO, director, category);
+    }
+
+    @Benchmark
+    public DirectorDTO directorToDTO() {
+        return directorMapper.toDTO(director);
+    }
+
+    @Benchmark
+    public String directorFullName() {
+        return director.getFullName();
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDTO() {
+        return categoryMapper.toDTO(category);
+    }
+}
@@ -1,17 +1,41 @@
 package com.cinhub;
 
-//TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
-// click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
+import com.cinhub.server.EmbeddedServer;
+import org.apache.catalina.LifecycleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Lanceur du jar exécutable (profil Maven standalone) : démarre l'application dans un
+ * Tomcat embarqué. Les réglages server.* sont lus comme dans AppConfig, propriétés
+ * système et variables d'environnement l'emportant sur application.properties.
+ */
 public class Main {
-    public static void main(String[] args) {
-        //TIP Press <shortcut actionId="ShowIntentionActions"/> with your caret at the highlighted text
-        // to see how IntelliJ IDEA suggests fixing it.
-        System.out.printf("Hello and welcome!");
 
-        for (int i = 1; i <= 5; i++) {
-            //TIP Press <shortcut actionId="Debug"/> to start debugging your code. We have set one <icon src="AllIcons.Debugger.Db_set_breakpoint"/> breakpoint
-            // for you, but you can always add more by pressing <shortcut actionId="ToggleLineBreakpoint"/>.
-            System.out.println("i = " + i);
+    private static final Logger logger = LoggerFactory.getLogger(Main.class);
+
+    public static void main(String[] args) throws Exception {
+        long start = System.currentTimeMillis();
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+
+        EmbeddedServer server = new EmbeddedServer(env);
+        try {
+            server.start();
+        } catch (LifecycleException | RuntimeException e) {
+            logger.error("Échec du démarrage de CinéHub", e);
+            System.exit(1);
         }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "cinehub-shutdown"));
+
+        long now = System.currentTimeMillis();
+        logger.info("CinéHub démarré en {} ms (JVM lancée depuis {} ms) sur http://localhost:{}{}/ - connecteur {}",
+                now - start, now - ManagementFactory.getRuntimeMXBean().getStartTime(),
+                server.getPort(), server.getContextPath(), server.describeConnector());
+        server.await();
     }
-}
\ No newline at end of file
+}
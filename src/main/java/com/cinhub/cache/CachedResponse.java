@@ -0,0 +1,38 @@
+package com.cinhub.cache;
+
+import java.util.Set;
+
+/**
+ * Corps JSON sérialisé d'une réponse, ses étiquettes d'invalidation et, pour une
+ * ressource unitaire, ses validateurs HTTP.
+ */
+public class CachedResponse {
+
+    private final byte[] body;
+    private final Set<String> tags;
+    private final String etag;
+    private final long lastModified;
+
+    CachedResponse(byte[] body, Set<String> tags, String etag, long lastModified) {
+        this.body = body;
+        this.tags = tags;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    Set<String> getTags() {
+        return tags;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,275 @@
+package com.cinhub.cache;
+
+import com.cinhub.datasource.ReadWriteRoutingDataSource;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.event.CategoryChangedEvent;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.DirectorChangedEvent;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.util.ResourceVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache des réponses JSON déjà sérialisées des lectures de films (film par id, recherches
+ * par année, catégorie, note minimale et réalisateur). Un succès renvoie directement les
+ * octets : ni base, ni mapper, ni Jackson.
+ *
+ * <p>Le cache est borné en octets (éviction W-TinyLFU de Caffeine, pondérée par la taille
+ * du corps). Chaque entrée porte des étiquettes : les films, réalisateurs et catégories
+ * qu'elle contient, plus la requête qui l'a produite (ex. {@code films-of-year:1994}).
+ * Les écritures validées invalident précisément les étiquettes touchées.
+ *
+ * <p>Une époque, incrémentée à chaque invalidation, est lue avant le chargement puis
+ * vérifiée après l'insertion : une entrée calculée pendant une écriture concurrente est
+ * retirée au lieu de survivre à son invalidation. Les chargements lisent le primaire :
+ * l'invalidation suit la validation sur le primaire, un réplica en retard y remettrait
+ * une réponse périmée pour toute la durée de vie de l'entrée.
+ */
+@Component
+public class FilmResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilmResponseCache.class);
+
+    private static final String CACHE_NAME = "film-responses";
+    // Surcoût approximatif d'une entrée (nœud Caffeine, enveloppe, étiquettes) ajouté au corps
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final boolean enabled;
+    private final long maxWeightBytes;
+    private final Cache<String, CachedResponse> cache;
+    private final ConcurrentHashMap<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final ObjectWriter filmWriter;
+    private final ObjectWriter filmListWriter;
+
+    public FilmResponseCache(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${cinhub.response-cache.enabled:true}") boolean enabled,
+                             @Value("${cinhub.response-cache.max-size-mb:64}") long maxSizeMb,
+                             @Value("${cinhub.response-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxWeightBytes = maxSizeMb * 1024 * 1024;
+        this.filmWriter = objectMapper.writerFor(FilmDTO.class);
+        this.filmListWriter = objectMapper.writerFor(new TypeReference<List<FilmDTO>>() {
+        });
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, CachedResponse response) -> weigh(key, response))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                // Synchrone et limité aux évictions ; après une invalidation explicite, les étiquettes
+                // restantes de l'entrée ne coûtent au pire qu'une invalidation superflue
+                .evictionListener((String key, CachedResponse response, RemovalCause cause) -> untag(key, response))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cinhub.response_cache.hit_ratio", cache, c -> c.stats().hitRate())
+                .description("Part des lectures servies depuis le cache de réponses")
+                .register(meterRegistry);
+        Gauge.builder("cinhub.response_cache.weight", this, FilmResponseCache::getWeightBytes)
+                .description("Octets occupés par les réponses en cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cinhub.response_cache.tags", keysByTag, ConcurrentHashMap::size)
+                .description("Étiquettes d'invalidation suivies")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Film par identifiant, avec ses validateurs HTTP (ETag, Last-Modified)
+     */
+    public CachedResponse getFilm(Long id, Supplier<ResourceVersion> version, Supplier<FilmDTO> loader) {
+        return get("film:" + id, () -> {
+            ResourceVersion resourceVersion = version.get();
+            FilmDTO film = loader.get();
+            return new CachedResponse(serialize(filmWriter, film), tags(List.of(film)),
+                    resourceVersion.getEtag(), resourceVersion.getLastModified());
+        });
+    }
+
+    public CachedResponse getFilmsByYear(Integer year, Supplier<List<FilmDTO>> loader) {
+        return getList("films-of-year:" + year, loader);
+    }
+
+    public CachedResponse getFilmsByCategory(Long categoryId, Supplier<List<FilmDTO>> loader) {
+        return getList("films-of-category:" + categoryId, loader);
+    }
+
+    public CachedResponse getFilmsByDirector(Long directorId, Supplier<List<FilmDTO>> loader) {
+        return getList("films-of-director:" + directorId, loader);
+    }
+
+    public CachedResponse getFilmsByMinRating(Double minRating, Supplier<List<FilmDTO>> loader) {
+        return getList("films-by-rating:" + minRating, loader);
+    }
+
+    @TransactionalEventListener
+    public void onFilmChanged(FilmChangedEvent event) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add("film:" + event.getIdFilm());
+        FilmDTO film = event.getFilm();
+        // L'ancienne appartenance est couverte par l'étiquette du film ; la nouvelle peut
+        // faire entrer le film dans des listes qui ne le contenaient pas
+        if (event.getType() != ChangeType.DELETED && film != null) {
+            tags.add("films-by-rating");
+            tags.add("films-of-year:" + film.getReleaseYear());
+            if (film.getDirector() != null) {
+                tags.add("films-of-director:" + film.getDirector().getIdDirector());
+            }
+            if (film.getCategory() != null) {
+                tags.add("films-of-category:" + film.getCategory().getIdCategory());
+            }
+        }
+        invalidate(tags);
+    }
+
+    @TransactionalEventListener
+    public void onDirectorChanged(DirectorChangedEvent event) {
+        invalidate(List.of("director:" + event.getIdDirector(), "films-of-director:" + event.getIdDirector()));
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate(List.of("category:" + event.getIdCategory(), "films-of-category:" + event.getIdCategory()));
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+        keysByTag.clear();
+        logger.info("Cache de réponses des films vidé");
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getEntryCount() {
+        return cache.estimatedSize();
+    }
+
+    public long getWeightBytes() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public long getMaxWeightBytes() {
+        return maxWeightBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private CachedResponse getList(String key, Supplier<List<FilmDTO>> loader) {
+        return get(key, () -> {
+            List<FilmDTO> films = loader.get();
+            Set<String> tags = tags(films);
+            tags.add(key.startsWith("films-by-rating:") ? "films-by-rating" : key);
+            return new CachedResponse(serialize(filmListWriter, films), tags, null, -1);
+        });
+    }
+
+    private CachedResponse get(String key, Supplier<CachedResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startEpoch = epoch.get();
+        CachedResponse response = ReadWriteRoutingDataSource.onPrimary(loader);
+        cache.put(key, response);
+        tag(key, response);
+        // Une invalidation a eu lieu pendant le chargement : l'entrée est peut-être déjà périmée
+        if (epoch.get() != startEpoch) {
+            cache.asMap().remove(key, response);
+        }
+        return response;
+    }
+
+    private void invalidate(Collection<String> tags) {
+        epoch.incrementAndGet();
+        int removed = 0;
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+                removed += keys.size();
+            }
+        }
+        if (removed > 0) {
+            logger.debug("Cache de réponses : {} entrée(s) invalidée(s) pour {}", removed, tags);
+        }
+    }
+
+    private void tag(String key, CachedResponse response) {
+        for (String tag : response.getTags()) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void untag(String key, CachedResponse response) {
+        if (response == null) {
+            return;
+        }
+        for (String tag : response.getTags()) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Set<String> tags(List<FilmDTO> films) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (FilmDTO film : films) {
+            tags.add("film:" + film.getIdFilm());
+            if (film.getDirector() != null) {
+                tags.add("director:" + film.getDirector().getIdDirector());
+            }
+            if (film.getCategory() != null) {
+                tags.add("category:" + film.getCategory().getIdCategory());
+            }
+        }
+        return tags;
+    }
+
+    private static byte[] serialize(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int weigh(String key, CachedResponse response) {
+        return response.getBody().length + 2 * key.length() + ENTRY_OVERHEAD_BYTES;
+    }
+}
@@ -1,21 +1,49 @@
 package com.cinhub.config;
 
+import com.cinhub.datasource.ReadWriteRoutingDataSource;
+import com.cinhub.datasource.ReplicaDataSource;
+import com.cinhub.metrics.SqlProfilingListener;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -25,10 +53,39 @@ import java.util.Properties;
 @Configuration
 @EnableTransactionManagement
 @EnableJpaRepositories(basePackages = "com.cinhub.repository")
-@ComponentScan(basePackages = "com.cinhub")
+@ComponentScan(basePackages = "com.cinhub", excludeFilters = {
+        // Contrôleurs et configuration MVC appartiennent au contexte du DispatcherServlet (WebConfig)
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.cinhub\\.controller\\..*"),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = WebConfig.class)
+})
 @PropertySource("classpath:application.properties")
 public class AppConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari.";
+    private static final String REPLICAS_PREFIX = "spring.datasource.replicas.";
+
+    /**
+     * Options de performance de Connector/J appliquées par défaut aux URL MySQL :
+     * cache des requêtes préparées côté client et serveur, réécriture des lots,
+     * et suppression des allers-retours inutiles (autocommit, métadonnées).
+     */
+    private static final Map<String, String> MYSQL_DATA_SOURCE_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        MYSQL_DATA_SOURCE_PROPERTIES.put("cachePrepStmts", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("prepStmtCacheSize", "250");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("prepStmtCacheSqlLimit", "2048");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("useServerPrepStmts", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("rewriteBatchedStatements", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("cacheResultSetMetadata", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("cacheServerConfiguration", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("elideSetAutoCommits", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("useLocalSessionState", "true");
+        MYSQL_DATA_SOURCE_PROPERTIES.put("maintainTimeStats", "false");
+    }
+
     private final Environment env;
 
     public AppConfig(Environment env) {
@@ -36,33 +93,142 @@ public class AppConfig {
     }
 
     /**
-     * Configuration de la source de données avec HikariCP
+     * Pool HikariCP vers le primaire (écritures, et lectures à défaut de réplica)
+     * (paramètres du pool dans spring.datasource.hikari.*, métriques exportées sur /metrics)
      */
     @Bean
-    public DataSource dataSource() {
+    public HikariDataSource primaryDataSource(MeterRegistry meterRegistry) {
+        HikariConfig config = hikariConfig(
+                env.getProperty(HIKARI_PREFIX + "pool-name", "cinehub-pool"),
+                env.getProperty("spring.datasource.url", "jdbc:mysql://localhost:3306/cinhub_db?useSSL=false&serverTimezone=UTC&useCursorFetch=true"),
+                env.getProperty("spring.datasource.username", "root"),
+                env.getProperty("spring.datasource.password", ""),
+                meterRegistry);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Aiguillage lecture/écriture : transactions readOnly vers les réplicas de
+     * spring.datasource.replicas.urls, le reste (et tout, sans réplica sain) vers le primaire
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        String[] urls = env.getProperty(REPLICAS_PREFIX + "urls", String[].class, new String[0]);
+        long maxLagSeconds = env.getProperty(REPLICAS_PREFIX + "max-lag-seconds", Long.class, 5L);
+        String lagColumn = env.getProperty(REPLICAS_PREFIX + "lag-column", "Seconds_Behind_Source");
+
+        List<ReplicaDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = primaryDataSource.getPoolName() + "-replica-" + (replicas.size() + 1);
+            HikariConfig config = hikariConfig(name, url.trim(),
+                    env.getProperty(REPLICAS_PREFIX + "username", primaryDataSource.getUsername()),
+                    env.getProperty(REPLICAS_PREFIX + "password", primaryDataSource.getPassword()),
+                    meterRegistry);
+            config.setMaximumPoolSize(env.getProperty(REPLICAS_PREFIX + "maximum-pool-size", Integer.class, config.getMaximumPoolSize()));
+            config.setMinimumIdle(env.getProperty(REPLICAS_PREFIX + "minimum-idle", Integer.class, config.getMinimumIdle()));
+            // Un réplica injoignable au démarrage ne doit pas empêcher l'application de démarrer
+            config.setInitializationFailTimeout(-1);
+
+            String lagQuery = env.getProperty(REPLICAS_PREFIX + "lag-query",
+                    url.startsWith("jdbc:mysql:") ? "SHOW REPLICA STATUS" : "");
+            ReplicaDataSource replica = new ReplicaDataSource(name, new HikariDataSource(config), lagQuery, lagColumn, maxLagSeconds);
+            Gauge.builder("cinhub.datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("1 si le réplica reçoit des lectures, 0 s'il est écarté")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            Gauge.builder("cinhub.datasource.replica.lag", replica, ReplicaDataSource::getLagSeconds)
+                    .description("Retard de réplication mesuré")
+                    .baseUnit("seconds")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                env.getProperty(REPLICAS_PREFIX + "health-check-interval", Long.class, 5000L));
+    }
+
+    /**
+     * Source de données de l'application : la connexion réelle n'est demandée à l'aiguillage
+     * qu'à la première requête, une fois le caractère readOnly de la transaction connu.
+     * Chaque instruction est mesurée au passage (Server-Timing, journal des requêtes lentes)
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        if (!env.getProperty("cinhub.sql.profiling.enabled", Boolean.class, true)) {
+            return dataSource;
+        }
+        return ProxyDataSourceBuilder.create("cinehub", dataSource)
+                .listener(new SqlProfilingListener(
+                        env.getProperty("cinhub.sql.slow-query-threshold", Long.class, 200L),
+                        env.getProperty("cinhub.sql.slow-query-sample-rate", Double.class, 1.0),
+                        env.getProperty("cinhub.sql.max-queries-per-request", Integer.class, 25)))
+                .build();
+    }
+
+    private HikariConfig hikariConfig(String poolName, String url, String username, String password, MeterRegistry meterRegistry) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(env.getProperty("spring.datasource.url", "jdbc:mysql://localhost:3306/cinhub_db?useSSL=false&serverTimezone=UTC"));
-        config.setUsername(env.getProperty("spring.datasource.username", "root"));
-        config.setPassword(env.getProperty("spring.datasource.password", ""));
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
         config.setDriverClassName(env.getProperty("spring.datasource.driver-class-name", "com.mysql.cj.jdbc.Driver"));
 
         // Configuration du pool
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(5);
-        config.setConnectionTimeout(30000);
-        config.setIdleTimeout(600000);
-        config.setMaxLifetime(1800000);
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(env.getProperty(HIKARI_PREFIX + "maximum-pool-size", Integer.class, 10));
+        config.setMinimumIdle(env.getProperty(HIKARI_PREFIX + "minimum-idle", Integer.class, 5));
+        config.setConnectionTimeout(env.getProperty(HIKARI_PREFIX + "connection-timeout", Long.class, 30000L));
+        config.setValidationTimeout(env.getProperty(HIKARI_PREFIX + "validation-timeout", Long.class, 5000L));
+        config.setIdleTimeout(env.getProperty(HIKARI_PREFIX + "idle-timeout", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty(HIKARI_PREFIX + "max-lifetime", Long.class, 1800000L));
+        config.setKeepaliveTime(env.getProperty(HIKARI_PREFIX + "keepalive-time", Long.class, 0L));
+        config.setLeakDetectionThreshold(env.getProperty(HIKARI_PREFIX + "leak-detection-threshold", Long.class, 0L));
 
-        return new HikariDataSource(config);
+        if (url.startsWith("jdbc:mysql:")) {
+            MYSQL_DATA_SOURCE_PROPERTIES.forEach((name, defaultValue) -> config.addDataSourceProperty(name,
+                    env.getProperty(HIKARI_PREFIX + "data-source-properties." + name, defaultValue)));
+        }
+
+        // Connexions actives/inactives, threads en attente, temps d'acquisition et d'utilisation
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return config;
+    }
+
+    /**
+     * Migrations versionnées du schéma (db/migration), appliquées sur le primaire avant le
+     * démarrage d'Hibernate. Une base existante créée par hbm2ddl est adoptée comme version 1.
+     */
+    @Bean
+    public Flyway flyway(HikariDataSource primaryDataSource) {
+        Flyway flyway = Flyway.configure()
+                .dataSource(primaryDataSource)
+                .locations(env.getProperty("spring.flyway.locations", String[].class, new String[]{"classpath:db/migration"}))
+                .baselineOnMigrate(env.getProperty("spring.flyway.baseline-on-migrate", Boolean.class, true))
+                .baselineVersion(env.getProperty("spring.flyway.baseline-version", "1"))
+                .load();
+        if (env.getProperty("spring.flyway.enabled", Boolean.class, true)) {
+            MigrateResult result = flyway.migrate();
+            logger.info("Schéma en version {} ({} migration(s) appliquée(s))",
+                    result.targetSchemaVersion != null ? result.targetSchemaVersion : result.initialSchemaVersion,
+                    result.migrationsExecuted);
+        }
+        return flyway;
     }
 
     /**
      * Configuration de l'EntityManagerFactory avec Hibernate
+     * (le schéma est géré par Flyway, Hibernate se contente de le valider)
      */
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    @DependsOn("flyway")
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.cinhub.entity");
 
         HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
@@ -82,16 +248,74 @@ public class AppConfig {
         return transactionManager;
     }
 
+    /**
+     * Accès JDBC direct pour les insertions en lot (import massif de films)
+     */
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Configuration du ObjectMapper pour JSON avec support des dates Java 8.
+     * Blackbird remplace la réflexion par des accesseurs générés (LambdaMetafactory) ;
+     * les tampons de sortie sont recyclés dans un pool partagé plutôt que par thread,
+     * ce qui reste efficace quand les requêtes tournent sur des threads éphémères.
+     * Instance unique partagée par le cache de réponses et les convertisseurs MVC.
+     */
+    @Bean
+    public ObjectMapper objectMapper() {
+        JsonFactory factory = JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+                .build();
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    /**
+     * Validateur Bean Validation utilisable hors des contrôleurs (sans dépendance à javax.el)
+     */
+    @Bean
+    public LocalValidatorFactoryBean validator() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.setMessageInterpolator(new ParameterMessageInterpolator());
+        return validator;
+    }
+
     /**
      * Propriétés Hibernate
      */
     private Properties hibernateProperties() {
         Properties properties = new Properties();
         properties.put("hibernate.dialect", env.getProperty("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect"));
-        properties.put("hibernate.hbm2ddl.auto", env.getProperty("spring.jpa.hibernate.ddl-auto", "update"));
-        properties.put("hibernate.show_sql", env.getProperty("spring.jpa.show-sql", "true"));
-        properties.put("hibernate.format_sql", env.getProperty("spring.jpa.properties.hibernate.format_sql", "true"));
+        properties.put("hibernate.hbm2ddl.auto", env.getProperty("spring.jpa.hibernate.ddl-auto", "validate"));
+        properties.put("hibernate.show_sql", env.getProperty("spring.jpa.show-sql", "false"));
+        properties.put("hibernate.format_sql", env.getProperty("spring.jpa.properties.hibernate.format_sql", "false"));
         properties.put("hibernate.use_sql_comments", "true");
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        // Filtres Criteria : valeurs liées en paramètres et listes IN complétées à la puissance de 2,
+        // pour qu'un même texte SQL serve à toutes les combinaisons (cache des requêtes préparées)
+        properties.put("hibernate.criteria.literal_handling_mode", "bind");
+        properties.put("hibernate.query.in_clause_parameter_padding", "true");
+        // Filet de sécurité : les associations paresseuses restantes sont chargées par lots d'IN (...)
+        properties.put("hibernate.default_batch_fetch_size", env.getProperty("spring.jpa.properties.hibernate.default_batch_fetch_size", "100"));
+        properties.put("hibernate.generate_statistics", env.getProperty("spring.jpa.properties.hibernate.generate_statistics", "false"));
+
+        // Cache de second niveau (opt-in) : Director, Category et requêtes existsBy*
+        boolean secondLevelCache = Boolean.parseBoolean(
+                env.getProperty("spring.jpa.properties.hibernate.cache.use_second_level_cache", "false"));
+        properties.put("hibernate.cache.use_second_level_cache", String.valueOf(secondLevelCache));
+        if (secondLevelCache) {
+            properties.put("hibernate.cache.use_query_cache", env.getProperty("spring.jpa.properties.hibernate.cache.use_query_cache", "true"));
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        }
         return properties;
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.cinhub.config;
+
+import com.cinhub.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres de pagination des endpoints de liste
+ */
+@Component
+public class PaginationProperties {
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public PaginationProperties(@Value("${cinhub.pagination.default-size:50}") int defaultSize,
+                                @Value("${cinhub.pagination.max-size:500}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested <= 0 || requested > maxSize) {
+            throw new ValidationException(
+                    String.format("La taille de page doit être comprise entre 1 et %d", maxSize));
+        }
+        return requested;
+    }
+}
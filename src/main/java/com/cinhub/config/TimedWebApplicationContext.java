@@ -0,0 +1,24 @@
+package com.cinhub.config;
+
+import com.cinhub.metrics.StartupTimeline;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * Contexte web dont le démarrage est chronométré par un {@link StartupTimeline}.
+ * Contrairement à GenericApplicationContext, un contexte rafraîchissable ne transmet pas
+ * son ApplicationStartup à la fabrique de beans : sans cela, l'instanciation des beans
+ * ne serait pas mesurée.
+ */
+public class TimedWebApplicationContext extends AnnotationConfigWebApplicationContext {
+
+    public TimedWebApplicationContext(String name) {
+        setApplicationStartup(new StartupTimeline(name));
+    }
+
+    @Override
+    protected void customizeBeanFactory(DefaultListableBeanFactory beanFactory) {
+        super.customizeBeanFactory(beanFactory);
+        beanFactory.setApplicationStartup(getApplicationStartup());
+    }
+}
@@ -1,7 +1,14 @@
 package com.cinhub.config;
 
+import com.cinhub.web.VirtualThreadDispatcherServlet;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.DelegatingFilterProxy;
+import org.springframework.web.servlet.FrameworkServlet;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
+import javax.servlet.Filter;
+
 /**
  * Initializes the Spring DispatcherServlet and root application context.
  * This replaces the traditional web.xml configuration.
@@ -24,6 +31,39 @@ public class WebAppInitializer extends AbstractAnnotationConfigDispatcherServlet
         return new Class<?>[]{WebConfig.class};
     }
 
+    /**
+     * Contextes chronométrés : ventilation du démarrage par phase et par bean dans le journal
+     */
+    @Override
+    protected WebApplicationContext createRootApplicationContext() {
+        AnnotationConfigWebApplicationContext context = new TimedWebApplicationContext("contexte racine");
+        context.register(getRootConfigClasses());
+        return context;
+    }
+
+    @Override
+    protected WebApplicationContext createServletApplicationContext() {
+        AnnotationConfigWebApplicationContext context = new TimedWebApplicationContext("contexte web");
+        context.register(getServletConfigClasses());
+        return context;
+    }
+
+    /**
+     * DispatcherServlet capable d'exécuter les requêtes sur threads virtuels (cinhub.virtual-threads.enabled)
+     */
+    @Override
+    protected FrameworkServlet createDispatcherServlet(WebApplicationContext servletAppContext) {
+        return new VirtualThreadDispatcherServlet(servletAppContext);
+    }
+
+    /**
+     * Filtres appliqués devant le DispatcherServlet (beans du contexte racine)
+     */
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[]{new DelegatingFilterProxy("gzipCompressionFilter")};
+    }
+
     /**
      * DispatcherServlet mapping
      */
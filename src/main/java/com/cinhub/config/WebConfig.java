@@ -1,47 +1,58 @@
 package com.cinhub.config;
 
+import com.cinhub.metrics.RequestMetricsInterceptor;
+import com.cinhub.web.CachingJackson2HttpMessageConverter;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.context.annotation.Bean;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
  * Configuration Web MVC
  * Gère les controllers, les convertisseurs JSON et CORS
+ * (seuls les contrôleurs sont déclarés dans le contexte web, le reste vient du contexte racine)
  */
 @Configuration
 @EnableWebMvc
 @ComponentScan(basePackages = "com.cinhub.controller")
 public class WebConfig implements WebMvcConfigurer {
 
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
     /**
-     * Configuration du ObjectMapper pour JSON avec support des dates Java 8
+     * Configuration des convertisseurs HTTP (texte pour /metrics, octets pour les réponses
+     * JSON déjà sérialisées du cache, JSON pour le reste)
      */
-    @Bean
-    public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        return mapper;
+    @Override
+    public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new StringHttpMessageConverter(StandardCharsets.UTF_8));
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new CachingJackson2HttpMessageConverter(objectMapper));
     }
 
     /**
-     * Configuration des convertisseurs HTTP (JSON)
+     * Métriques de latence et d'erreurs par route (exposées sur /metrics)
      */
     @Override
-    public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.setObjectMapper(objectMapper());
-        converters.add(converter);
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry))
+                .excludePathPatterns("/metrics");
     }
 
     /**
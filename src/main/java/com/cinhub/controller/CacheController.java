@@ -0,0 +1,38 @@
+package com.cinhub.controller;
+
+import com.cinhub.dto.CacheStatsDTO;
+import com.cinhub.service.CacheStatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheController(@Lazy CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsDTO> getCacheStatistics() {
+        logger.info("GET /api/cache/stats - Statistiques du cache de second niveau");
+        return ResponseEntity.ok(cacheStatisticsService.getCacheStatistics());
+    }
+
+    @DeleteMapping("/responses")
+    public ResponseEntity<Void> clearResponseCache() {
+        logger.info("DELETE /api/cache/responses - Vidage du cache de réponses des films");
+        cacheStatisticsService.clearResponseCache();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,13 +3,16 @@ package com.cinhub.controller;
 import com.cinhub.dto.CategoryCreateDTO;
 import com.cinhub.dto.CategoryDTO;
 import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.PageResponse;
 import com.cinhub.service.CategoryService;
+import com.cinhub.util.ResourceVersion;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -38,17 +41,27 @@ public class CategoryController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("GET /api/categories/{} - Récupération d'une catégorie", id);
+        ResourceVersion version = categoryService.getCategoryVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         CategoryDTO category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category);
     }
 
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
-        logger.info("GET /api/categories - Récupération de toutes les catégories");
-        List<CategoryDTO> categories = categoryService.getAllCategories();
+    public ResponseEntity<PageResponse<CategoryDTO>> getAllCategories(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        logger.info("GET /api/categories?cursor={}&size={} - Récupération d'une page de catégories", cursor, size);
+        if (webRequest.checkNotModified(categoryService.getCategoriesVersion().getEtag())) {
+            return null;
+        }
+        PageResponse<CategoryDTO> categories = categoryService.getAllCategories(cursor, size);
         return ResponseEntity.ok(categories);
     }
 
@@ -83,9 +96,11 @@ public class CategoryController {
 
 
     @GetMapping("/search")
-    public ResponseEntity<List<CategoryDTO>> searchCategoriesByName(@RequestParam String q) {
-        logger.info("GET /api/categories/search?q={}", q);
-        List<CategoryDTO> categories = categoryService.searchCategoriesByName(q);
+    public ResponseEntity<List<CategoryDTO>> searchCategoriesByName(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/categories/search?q={}&limit={}", q, limit);
+        List<CategoryDTO> categories = categoryService.searchCategoriesByName(q, limit);
         return ResponseEntity.ok(categories);
     }
 }
\ No newline at end of file
@@ -3,13 +3,16 @@ package com.cinhub.controller;
 import com.cinhub.dto.DirectorCreateDTO;
 import com.cinhub.dto.DirectorDTO;
 import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.PageResponse;
 import com.cinhub.service.DirectorService;
+import com.cinhub.util.ResourceVersion;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -38,16 +41,22 @@ public class DirectorController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<DirectorDTO> getDirectorById(@PathVariable Long id) {
+    public ResponseEntity<DirectorDTO> getDirectorById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("GET /api/directors/{} - Récupération d'un réalisateur", id);
+        ResourceVersion version = directorService.getDirectorVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         DirectorDTO director = directorService.getDirectorById(id);
         return ResponseEntity.ok(director);
     }
 
     @GetMapping
-    public ResponseEntity<List<DirectorDTO>> getAllDirectors() {
-        logger.info("GET /api/directors - Récupération de tous les réalisateurs");
-        List<DirectorDTO> directors = directorService.getAllDirectors();
+    public ResponseEntity<PageResponse<DirectorDTO>> getAllDirectors(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        logger.info("GET /api/directors?cursor={}&size={} - Récupération d'une page de réalisateurs", cursor, size);
+        PageResponse<DirectorDTO> directors = directorService.getAllDirectors(cursor, size);
         return ResponseEntity.ok(directors);
     }
 
@@ -83,16 +92,20 @@ public class DirectorController {
 
 
     @GetMapping("/search/lastname")
-    public ResponseEntity<List<DirectorDTO>> searchByLastName(@RequestParam String q) {
-        logger.info("GET /api/directors/search/lastname?q={}", q);
-        List<DirectorDTO> directors = directorService.searchDirectorsByLastName(q);
+    public ResponseEntity<List<DirectorDTO>> searchByLastName(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/directors/search/lastname?q={}&limit={}", q, limit);
+        List<DirectorDTO> directors = directorService.searchDirectorsByLastName(q, limit);
         return ResponseEntity.ok(directors);
     }
 
     @GetMapping("/search/firstname")
-    public ResponseEntity<List<DirectorDTO>> searchByFirstName(@RequestParam String q) {
-        logger.info("GET /api/directors/search/firstname?q={}", q);
-        List<DirectorDTO> directors = directorService.searchDirectorsByFirstName(q);
+    public ResponseEntity<List<DirectorDTO>> searchByFirstName(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/directors/search/firstname?q={}&limit={}", q, limit);
+        List<DirectorDTO> directors = directorService.searchDirectorsByFirstName(q, limit);
         return ResponseEntity.ok(directors);
     }
 
@@ -1,16 +1,38 @@
 package com.cinhub.controller;
 
+import com.cinhub.cache.CachedResponse;
+import com.cinhub.cache.FilmResponseCache;
+import com.cinhub.dto.BulkImportReportDTO;
 import com.cinhub.dto.FilmCreateDTO;
 import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFacetFilterDTO;
+import com.cinhub.dto.FilmFacetsDTO;
+import com.cinhub.dto.FilmFilterDTO;
+import com.cinhub.dto.FilmRankingDTO;
 import com.cinhub.dto.FilmUpdateDTO;
+import com.cinhub.dto.PageResponse;
+import com.cinhub.service.FilmImportService;
 import com.cinhub.service.FilmService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +43,25 @@ public class FilmController {
 
     private static final Logger logger = LoggerFactory.getLogger(FilmController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Vidage du flux vers le client tous les N films (le premier est envoyé immédiatement)
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     private final FilmService filmService;
+    private final FilmImportService filmImportService;
+    private final FilmResponseCache responseCache;
+    private final ObjectReader importReader;
+    private final ObjectWriter exportWriter;
 
-    public FilmController(FilmService filmService) {
+    public FilmController(FilmService filmService, @Lazy FilmImportService filmImportService,
+                          FilmResponseCache responseCache, ObjectMapper objectMapper) {
         this.filmService = filmService;
+        this.filmImportService = filmImportService;
+        this.responseCache = responseCache;
+        this.importReader = objectMapper.readerFor(FilmCreateDTO.class);
+        this.exportWriter = objectMapper.writerFor(FilmDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping
@@ -35,22 +72,101 @@ public class FilmController {
     }
 
 
+    /**
+     * Import massif : accepte un tableau JSON ou un flux NDJSON, lu au fil de l'eau
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkImportReportDTO> bulkCreateFilms(HttpServletRequest request) throws IOException {
+        logger.info("POST /api/films/bulk - Import massif de films ({})", request.getContentType());
+        try (MappingIterator<FilmCreateDTO> films = importReader.readValues(request.getInputStream())) {
+            BulkImportReportDTO report = filmImportService.importFilms(films);
+            return ResponseEntity.ok(report);
+        }
+    }
+
+
     @GetMapping("/{id}")
-    public ResponseEntity<FilmDTO> getFilmById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getFilmById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("GET /api/films/{} - Récupération d'un film", id);
-        FilmDTO film = filmService.getFilmById(id);
-        return ResponseEntity.ok(film);
+        CachedResponse film = responseCache.getFilm(id,
+                () -> filmService.getFilmVersion(id),
+                () -> filmService.getFilmById(id));
+        if (webRequest.checkNotModified(film.getEtag(), film.getLastModified())) {
+            return null;
+        }
+        return json(film);
     }
 
 
     @GetMapping
-    public ResponseEntity<List<FilmDTO>> getAllFilms() {
-        logger.info("GET /api/films - Récupération de tous les films");
-        List<FilmDTO> films = filmService.getAllFilms();
+    public ResponseEntity<PageResponse<FilmDTO>> getAllFilms(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        logger.info("GET /api/films?cursor={}&size={} - Récupération d'une page de films", cursor, size);
+        PageResponse<FilmDTO> films = filmService.getAllFilms(cursor, size);
         return ResponseEntity.ok(films);
     }
 
 
+    /**
+     * Filtre multicritère, ex. {@code /films/filter?categoryIds=3&minYear=1990&maxYear=2000&minRating=7.5&nationality=Française&sort=rating,desc}
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<PageResponse<FilmDTO>> filterFilms(
+            @Valid FilmFilterDTO filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        logger.info("GET /api/films/filter - Filtre multicritère ({})", filter);
+        return ResponseEntity.ok(filmService.filterFilms(filter, cursor, size));
+    }
+
+
+    /**
+     * Nombre de films répondant aux mêmes critères que /films/filter
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Map<String, Long>> countFilms(@Valid FilmFilterDTO filter) {
+        logger.info("GET /api/films/count {}", filter);
+        return ResponseEntity.ok(Map.of("count", filmService.countFilms(filter)));
+    }
+
+
+    /**
+     * Comptes par catégorie, décennie, tranche de note et nationalité pour la sélection,
+     * ex. {@code /films/facets?categoryIds=1,4&decades=1990&ratings=7,8&nationalities=Française}
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FilmFacetsDTO> getFacets(@Valid FilmFacetFilterDTO filter) {
+        logger.info("GET /api/films/facets {}", filter);
+        return ResponseEntity.ok(filmService.getFacets(filter));
+    }
+
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportFilms(HttpServletResponse response) throws IOException {
+        logger.info("GET /api/films/export - Export NDJSON du catalogue");
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator generator = exportWriter.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            long[] written = {0};
+
+            filmService.exportFilms(film -> {
+                try {
+                    exportWriter.writeValue(generator, film);
+                    generator.writeRaw('\n');
+                    if (++written[0] == 1 || written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+
     @PutMapping("/{id}")
     public ResponseEntity<FilmDTO> updateFilm(
             @PathVariable Long id,
@@ -74,42 +190,65 @@ public class FilmController {
     }
 
 
+    @GetMapping("/top")
+    public ResponseEntity<List<FilmRankingDTO>> getTopRatedFilms(
+            @RequestParam(required = false) Long category,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/films/top?category={}&limit={}", category, limit);
+        return ResponseEntity.ok(filmService.getTopRatedFilms(category, limit));
+    }
+
+
     @GetMapping("/search/title")
-    public ResponseEntity<List<FilmDTO>> searchFilmsByTitle(@RequestParam String q) {
-        logger.info("GET /api/films/search/title?q={}", q);
-        List<FilmDTO> films = filmService.searchFilmsByTitle(q);
+    public ResponseEntity<List<FilmDTO>> searchFilmsByTitle(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/films/search/title?q={}&limit={}", q, limit);
+        List<FilmDTO> films = filmService.searchFilmsByTitle(q, limit);
+        return ResponseEntity.ok(films);
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<List<FilmDTO>> searchFilmsByText(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/films/search/text?q={}&limit={}", q, limit);
+        List<FilmDTO> films = filmService.searchFilmsByText(q, limit);
         return ResponseEntity.ok(films);
     }
 
 
     @GetMapping("/search/year")
-    public ResponseEntity<List<FilmDTO>> searchFilmsByYear(@RequestParam Integer year) {
+    public ResponseEntity<byte[]> searchFilmsByYear(@RequestParam Integer year) {
         logger.info("GET /api/films/search/year?year={}", year);
-        List<FilmDTO> films = filmService.searchFilmsByYear(year);
-        return ResponseEntity.ok(films);
+        return json(responseCache.getFilmsByYear(year, () -> filmService.searchFilmsByYear(year)));
     }
 
 
     @GetMapping("/search/category/{categoryId}")
-    public ResponseEntity<List<FilmDTO>> searchFilmsByCategory(@PathVariable Long categoryId) {
+    public ResponseEntity<byte[]> searchFilmsByCategory(@PathVariable Long categoryId) {
         logger.info("GET /api/films/search/category/{}", categoryId);
-        List<FilmDTO> films = filmService.searchFilmsByCategory(categoryId);
-        return ResponseEntity.ok(films);
+        return json(responseCache.getFilmsByCategory(categoryId, () -> filmService.searchFilmsByCategory(categoryId)));
     }
 
 
     @GetMapping("/search/rating")
-    public ResponseEntity<List<FilmDTO>> searchFilmsByMinRating(@RequestParam Double min) {
+    public ResponseEntity<byte[]> searchFilmsByMinRating(@RequestParam Double min) {
         logger.info("GET /api/films/search/rating?min={}", min);
-        List<FilmDTO> films = filmService.searchFilmsByMinRating(min);
-        return ResponseEntity.ok(films);
+        return json(responseCache.getFilmsByMinRating(min, () -> filmService.searchFilmsByMinRating(min)));
     }
 
 
     @GetMapping("/director/{directorId}")
-    public ResponseEntity<List<FilmDTO>> getFilmsByDirector(@PathVariable Long directorId) {
+    public ResponseEntity<byte[]> getFilmsByDirector(@PathVariable Long directorId) {
         logger.info("GET /api/films/director/{}", directorId);
-        List<FilmDTO> films = filmService.getFilmsByDirector(directorId);
-        return ResponseEntity.ok(films);
+        return json(responseCache.getFilmsByDirector(directorId, () -> filmService.getFilmsByDirector(directorId)));
+    }
+
+    // Corps JSON déjà sérialisé, écrit tel quel par ByteArrayHttpMessageConverter
+    private static ResponseEntity<byte[]> json(CachedResponse response) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getBody());
     }
 }
\ No newline at end of file
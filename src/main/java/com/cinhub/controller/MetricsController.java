@@ -0,0 +1,27 @@
+package com.cinhub.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    private final PrometheusMeterRegistry meterRegistry;
+
+    public MetricsController(PrometheusMeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @GetMapping
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, TextFormat.CONTENT_TYPE_004)
+                .body(meterRegistry.scrape());
+    }
+}
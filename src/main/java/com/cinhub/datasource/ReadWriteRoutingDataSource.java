@@ -0,0 +1,129 @@
+package com.cinhub.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Aiguille les transactions {@code readOnly} vers les réplicas disponibles (tourniquet)
+ * et tout le reste vers le primaire. Sans réplica disponible, tout va au primaire.
+ *
+ * <p>Doit être enveloppée dans un {@code LazyConnectionDataSourceProxy} : le caractère
+ * lecture seule de la transaction n'est connu qu'après son ouverture, il faut donc
+ * retarder l'obtention de la connexion réelle jusqu'à la première requête.
+ *
+ * <p>{@link #onPrimary(Supplier)} force le primaire pour les lectures dont le résultat
+ * doit refléter les dernières écritures validées (remplissage d'un cache, par exemple).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final List<ReplicaDataSource> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final long healthCheckIntervalMs;
+    private ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaDataSource> replicas, long healthCheckIntervalMs) {
+        this.replicas = List.copyOf(replicas);
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaDataSource replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (replicas.isEmpty()) {
+            logger.info("Aucun réplica configuré : toutes les transactions utilisent le primaire");
+            return;
+        }
+
+        // Première vérification hors du démarrage : un réplica injoignable le retarderait du
+        // délai de connexion ; d'ici là, les réplicas sont écartés et tout va au primaire
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("{} réplica(s) en lecture configuré(s), vérification toutes les {} ms", replicas.size(), healthCheckIntervalMs);
+    }
+
+    /**
+     * Exécute l'action en envoyant toutes ses requêtes au primaire, transactions
+     * {@code readOnly} comprises
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (PRIMARY_REQUIRED.get() != null) {
+            return action.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || PRIMARY_REQUIRED.get() != null
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaDataSource replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void checkReplicas() {
+        for (ReplicaDataSource replica : replicas) {
+            try {
+                replica.checkHealth();
+            } catch (RuntimeException e) {
+                logger.error("Vérification du réplica {} impossible", replica.getName(), e);
+            }
+        }
+    }
+
+    public List<ReplicaDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        replicas.forEach(ReplicaDataSource::close);
+    }
+}
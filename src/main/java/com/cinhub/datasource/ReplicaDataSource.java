@@ -0,0 +1,108 @@
+package com.cinhub.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pool de connexions vers un réplica en lecture, avec son état de santé : le réplica n'est
+ * utilisé que s'il répond et que son retard de réplication reste sous le seuil accepté.
+ */
+public class ReplicaDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final long maxLagSeconds;
+
+    private volatile boolean available;
+    private volatile boolean checked;
+    private volatile double lagSeconds = Double.NaN;
+
+    /**
+     * @param lagQuery requête de retard (ex. {@code SHOW REPLICA STATUS}) ; vide pour un simple test de connexion
+     */
+    public ReplicaDataSource(String name, HikariDataSource dataSource, String lagQuery, String lagColumn, long maxLagSeconds) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public void checkHealth() {
+        boolean wasAvailable = available;
+        String reason = null;
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (lagQuery == null) {
+                lagSeconds = Double.NaN;
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    reason = "connexion invalide";
+                }
+            } else {
+                reason = checkLag(connection);
+            }
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            reason = e.getMessage();
+        }
+
+        available = reason == null;
+        boolean firstCheck = !checked;
+        checked = true;
+        if (available && !wasAvailable) {
+            logger.info("Réplica {} disponible pour les lectures", name);
+        } else if (!available && (wasAvailable || firstCheck)) {
+            logger.warn("Réplica {} écarté, lectures redirigées vers le primaire : {}", name, reason);
+        }
+    }
+
+    private String checkLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                lagSeconds = Double.NaN;
+                return "aucun statut de réplication";
+            }
+            long lag = resultSet.getLong(lagColumn);
+            if (resultSet.wasNull()) {
+                lagSeconds = Double.NaN;
+                return "réplication arrêtée";
+            }
+            lagSeconds = lag;
+            return lag > maxLagSeconds ? "retard de " + lag + " s (maximum " + maxLagSeconds + " s)" : null;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
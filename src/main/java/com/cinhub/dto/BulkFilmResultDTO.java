@@ -0,0 +1,21 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkFilmResultDTO {
+
+    public enum Status { CREATED, REJECTED }
+
+    private int index;
+    private Status status;
+    private Long idFilm;
+    private String title;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportReportDTO {
+    private int total;
+    private int created;
+    private int rejected;
+    private List<BulkFilmResultDTO> results;
+}
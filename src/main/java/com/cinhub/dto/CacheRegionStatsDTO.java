@@ -0,0 +1,18 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private Long elementCount;
+}
@@ -0,0 +1,23 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private boolean secondLevelCacheEnabled;
+    private boolean statisticsEnabled;
+    private long secondLevelCacheHitCount;
+    private long secondLevelCacheMissCount;
+    private long queryCacheHitCount;
+    private long queryCacheMissCount;
+    private List<CacheRegionStatsDTO> regions;
+    private ResponseCacheStatsDTO responseCache;
+}
@@ -19,4 +19,10 @@ public class DirectorDTO {
     private LocalDate birthDate;
     private String biography;
     private String fullName;
+
+    // Utilisé par les projections JPQL : le nom complet est calculé comme dans Director#getFullName
+    public DirectorDTO(Long idDirector, String firstName, String lastName, String nationality,
+                       LocalDate birthDate, String biography) {
+        this(idDirector, firstName, lastName, nationality, birthDate, biography, firstName + " " + lastName);
+    }
 }
\ No newline at end of file
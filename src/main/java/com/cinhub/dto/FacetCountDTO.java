@@ -0,0 +1,17 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCountDTO {
+    private Object value;
+    private String label;
+    private long count;
+    private boolean selected;
+}
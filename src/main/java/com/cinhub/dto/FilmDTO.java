@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,4 +20,16 @@ public class FilmDTO {
     private Double rating;
     private DirectorDTO director;
     private CategoryDTO category;
+
+    /**
+     * Constructeur à plat utilisé par les projections JPQL ({@code SELECT new ...}) :
+     * le film, son réalisateur et sa catégorie sont lus en une requête sans entité gérée.
+     */
+    public FilmDTO(Long idFilm, String title, Integer releaseYear, Integer duration, String synopsis, Double rating,
+                   Long idDirector, String firstName, String lastName, String nationality, LocalDate birthDate,
+                   String biography, Long idCategory, String categoryName, String categoryDescription) {
+        this(idFilm, title, releaseYear, duration, synopsis, rating,
+                new DirectorDTO(idDirector, firstName, lastName, nationality, birthDate, biography),
+                new CategoryDTO(idCategory, categoryName, categoryDescription));
+    }
 }
\ No newline at end of file
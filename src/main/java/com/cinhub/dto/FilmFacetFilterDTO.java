@@ -0,0 +1,33 @@
+package com.cinhub.dto;
+
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sélection de GET /films/facets : les valeurs d'une même facette se combinent par OU,
+ * les facettes entre elles par ET ({@code categoryIds=1,4&decades=1990&ratings=7,8}).
+ * Une tranche de note {@code n} couvre [n, n+1[, la dernière (9) inclut 10.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilmFacetFilterDTO {
+
+    @Size(max = 100, message = "100 catégories au plus")
+    private List<Long> categoryIds;
+
+    @Size(max = 30, message = "30 décennies au plus")
+    private List<Integer> decades;
+
+    @Size(max = 10, message = "10 tranches de note au plus")
+    private List<Integer> ratings;
+
+    @Size(max = 100, message = "100 nationalités au plus")
+    private List<String> nationalities;
+}
@@ -0,0 +1,25 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Réponse de GET /films/facets. {@code total} compte les films de la sélection complète ;
+ * chaque facette compte ses valeurs sous la sélection des autres facettes, de sorte qu'une
+ * valeur non cochée indique combien de films l'ajouter apporterait.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilmFacetsDTO {
+    private long total;
+    private List<FacetCountDTO> categories;
+    private List<FacetCountDTO> decades;
+    private List<FacetCountDTO> ratings;
+    private List<FacetCountDTO> nationalities;
+}
@@ -0,0 +1,50 @@
+package com.cinhub.dto;
+
+import javax.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Critères de GET /films/filter, tous facultatifs et combinés par ET.
+ * Les listes acceptent des valeurs répétées ou séparées par des virgules
+ * ({@code categoryIds=1,4}) ; le tri s'écrit {@code sort=rating,desc}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilmFilterDTO {
+
+    @Min(value = 1888, message = "L'année minimale ne peut pas être avant 1888")
+    private Integer minYear;
+
+    @Max(value = 2100, message = "L'année maximale ne peut pas dépasser 2100")
+    private Integer maxYear;
+
+    @DecimalMin(value = "0.0", message = "La note minimale doit être au moins 0")
+    private Double minRating;
+
+    @DecimalMax(value = "10.0", message = "La note maximale doit être au plus 10")
+    private Double maxRating;
+
+    @Min(value = 1, message = "La durée minimale doit être supérieure à 0")
+    private Integer minDuration;
+
+    @Min(value = 1, message = "La durée maximale doit être supérieure à 0")
+    private Integer maxDuration;
+
+    @Size(max = 100, message = "100 catégories au plus")
+    private List<Long> categoryIds;
+
+    @Size(max = 100, message = "100 réalisateurs au plus")
+    private List<Long> directorIds;
+
+    @Size(max = 255, message = "La nationalité ne peut pas dépasser 255 caractères")
+    private String nationality;
+
+    private String sort;
+}
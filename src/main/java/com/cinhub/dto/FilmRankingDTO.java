@@ -0,0 +1,19 @@
+package com.cinhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilmRankingDTO {
+    private int rank;
+    private Long idFilm;
+    private String title;
+    private Integer releaseYear;
+    private Double rating;
+    private Long idCategory;
+}
@@ -4,15 +4,21 @@ import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Table(name = "categories")
-@Data
+@Getter
+@Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -40,17 +46,40 @@ public class Category {
     private LocalDate createdAt;
 
     @Column(name = "updated_at")
-    private LocalDate updatedAt;
+    private LocalDateTime updatedAt;
+
+    // Incrémentée à chaque modification : sert au verrouillage optimiste et aux ETag HTTP
+    @Version
+    @Column(nullable = false)
+    private long version;
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDate.now();
-        updatedAt = LocalDate.now();
+        updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDate.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Identité par clé primaire, comme Film
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Category)) {
+            return false;
+        }
+        Long id = getIdCategory();
+        return id != null && id.equals(((Category) o).getIdCategory());
+    }
+
+    @Override
+    public int hashCode() {
+        return Category.class.hashCode();
     }
 
     @Override
@@ -5,15 +5,23 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Past;
 import javax.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "director")
+@DynamicUpdate
 @Table(name = "directors")
-@Data
+@Getter
+@Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -43,6 +51,8 @@ public class Director {
     @Column(name = "birth_date", nullable = false)
     private LocalDate birthDate;
 
+    // Non différée : une entrée du cache de second niveau garde la ligne entière, et une
+    // biographie paresseuse coûterait une requête à chaque réalisateur servi par le cache
     @Column(columnDefinition = "TEXT")
     private String biography;
 
@@ -54,23 +64,46 @@ public class Director {
     private LocalDate createdAt;
 
     @Column(name = "updated_at")
-    private LocalDate updatedAt;
+    private LocalDateTime updatedAt;
+
+    // Incrémentée à chaque modification : sert au verrouillage optimiste et aux ETag HTTP
+    @Version
+    @Column(nullable = false)
+    private long version;
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDate.now();
-        updatedAt = LocalDate.now();
+        updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDate.now();
+        updatedAt = LocalDateTime.now();
     }
 
     public String getFullName() {
         return firstName + " " + lastName;
     }
 
+    // Identité par clé primaire, comme Film
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Director)) {
+            return false;
+        }
+        Long id = getIdDirector();
+        return id != null && id.equals(((Director) o).getIdDirector());
+    }
+
+    @Override
+    public int hashCode() {
+        return Director.class.hashCode();
+    }
+
     @Override
     public String toString() {
         return "Director{" +
@@ -3,13 +3,17 @@ package com.cinhub.entity;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 
 @Entity
+@DynamicUpdate
 @Table(name = "films")
-@Data
+@Getter
+@Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -22,7 +26,7 @@ public class Film {
 
     @NotBlank(message = "Le titre est obligatoire")
     @Size(min = 1, max = 255, message = "Le titre doit contenir entre 1 et 255 caractères")
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String title;
 
     @NotNull(message = "L'année de sortie est obligatoire")
@@ -36,6 +40,9 @@ public class Film {
     @Column(nullable = false)
     private Integer duration;
 
+    // Chargé au premier accès seulement (amélioration du bytecode) : une entité relue pour
+    // une suppression ou une écriture partielle ne transporte pas le texte
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
     private String synopsis;
 
@@ -57,17 +64,42 @@ public class Film {
     private LocalDate createdAt;
 
     @Column(name = "updated_at")
-    private LocalDate updatedAt;
+    private LocalDateTime updatedAt;
+
+    // Incrémentée à chaque modification : sert au verrouillage optimiste et aux ETag HTTP
+    @Version
+    @Column(nullable = false)
+    private long version;
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDate.now();
-        updatedAt = LocalDate.now();
+        updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDate.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Identité par clé primaire : ne charge ni association ni colonne différée, contrairement
+    // aux equals/hashCode générés sur tous les champs. Le hash est constant pour rester
+    // stable avant et après l'attribution de l'identifiant.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Film)) {
+            return false;
+        }
+        Long id = getIdFilm();
+        return id != null && id.equals(((Film) o).getIdFilm());
+    }
+
+    @Override
+    public int hashCode() {
+        return Film.class.hashCode();
     }
 
     @Override
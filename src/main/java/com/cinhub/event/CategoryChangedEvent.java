@@ -0,0 +1,19 @@
+package com.cinhub.event;
+
+import com.cinhub.dto.CategoryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par CategoryService à chaque écriture ; les index en mémoire l'écoutent après commit.
+ * {@code category} est l'état après écriture, absent pour une suppression.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CategoryChangedEvent {
+    private final ChangeType type;
+    private final Long idCategory;
+    private final CategoryDTO category;
+}
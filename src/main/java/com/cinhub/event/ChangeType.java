@@ -0,0 +1,7 @@
+package com.cinhub.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,19 @@
+package com.cinhub.event;
+
+import com.cinhub.dto.DirectorDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par DirectorService à chaque écriture ; les index en mémoire l'écoutent après commit.
+ * {@code director} est l'état après écriture, absent pour une suppression.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DirectorChangedEvent {
+    private final ChangeType type;
+    private final Long idDirector;
+    private final DirectorDTO director;
+}
@@ -0,0 +1,22 @@
+package com.cinhub.event;
+
+import com.cinhub.dto.FilmDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par FilmService à chaque écriture ; les index en mémoire l'écoutent après commit.
+ * {@code film} est l'état après écriture, absent pour une suppression ; {@code version} est
+ * la version de l'entité après écriture, qui permet d'écarter un événement livré après un
+ * plus récent (deux mises à jour validées presque en même temps).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class FilmChangedEvent {
+    private final ChangeType type;
+    private final Long idFilm;
+    private final FilmDTO film;
+    private final long version;
+}
@@ -1,11 +1,16 @@
 package com.cinhub.exception;
 
+import com.cinhub.metrics.RequestMetricsInterceptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
@@ -21,6 +26,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
             ResourceNotFoundException ex,
             WebRequest request) {
+        markHandled(request, ResourceNotFoundException.class);
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -38,6 +44,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleBusinessRuleException(
             BusinessRuleException ex,
             WebRequest request) {
+        markHandled(request, BusinessRuleException.class);
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -55,6 +62,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleValidationException(
             ValidationException ex,
             WebRequest request) {
+        markHandled(request, ValidationException.class);
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -68,10 +76,47 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex,
+            WebRequest request) {
+        markHandled(request, OptimisticLockingFailureException.class);
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Modification concurrente")
+                .message("La ressource a été modifiée entre-temps, veuillez la recharger puis réessayer")
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex,
+            WebRequest request) {
+        markHandled(request, DataIntegrityViolationException.class);
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflit d'intégrité")
+                .message("La modification entre en conflit avec des données existantes (doublon ou référence supprimée)")
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex,
             WebRequest request) {
+        markHandled(request, MethodArgumentNotValidException.class);
 
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -93,10 +138,35 @@ public class GlobalExceptionHandler {
     }
 
 
+    // Paramètres de requête liés à un objet (@ModelAttribute), ex. les critères de /films/filter
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<ErrorResponse> handleBindException(
+            BindException ex,
+            WebRequest request) {
+        markHandled(request, BindException.class);
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach((error) -> errors.put(error.getField(),
+                error.isBindingFailure() ? "Valeur invalide : " + error.getRejectedValue() : error.getDefaultMessage()));
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Erreur de validation des paramètres")
+                .message("Les paramètres suivants contiennent des erreurs")
+                .path(request.getDescription(false).replace("uri=", ""))
+                .validationErrors(errors)
+                .build();
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
             Exception ex,
             WebRequest request) {
+        markHandled(request, Exception.class);
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -110,6 +180,13 @@ public class GlobalExceptionHandler {
     }
 
 
+    // Type d'exception traité, relevé par RequestMetricsInterceptor pour le compteur d'erreurs
+    private static void markHandled(WebRequest request, Class<? extends Exception> type) {
+        request.setAttribute(RequestMetricsInterceptor.HANDLED_EXCEPTION_ATTRIBUTE, type.getSimpleName(),
+                RequestAttributes.SCOPE_REQUEST);
+    }
+
+
     @lombok.Data
     @lombok.Builder
     @lombok.AllArgsConstructor
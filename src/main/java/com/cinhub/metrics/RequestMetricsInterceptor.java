@@ -0,0 +1,126 @@
+package com.cinhub.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mesure chaque requête par route (motif du mapping, pas l'URL brute) : nombre, latence
+ * avec p50/p95/p99, et erreurs par type d'exception traitée dans GlobalExceptionHandler.
+ *
+ * <p>Les compteurs et timers sont créés une seule fois par route puis retrouvés sans
+ * allocation ; l'enregistrement lui-même (HdrHistogram de Micrometer) est sans verrou.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    /** Attribut de requête renseigné par GlobalExceptionHandler avec le type d'exception traité. */
+    public static final String HANDLED_EXCEPTION_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".HANDLED_EXCEPTION";
+
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".START";
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+    private static final int MAX_STATUS = 600;
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, RouteMeters>> routes = new ConcurrentHashMap<>();
+
+    public RequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Une requête asynchrone repasse par ici lors du second dispatch : on garde le premier départ
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long)) {
+            return;
+        }
+        long duration = System.nanoTime() - (Long) start;
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RouteMeters meters = meters(request.getMethod(), pattern instanceof String ? (String) pattern : UNKNOWN_ROUTE);
+        meters.timer(response.getStatus()).record(duration, TimeUnit.NANOSECONDS);
+
+        Object handled = request.getAttribute(HANDLED_EXCEPTION_ATTRIBUTE);
+        if (handled instanceof String) {
+            meters.errors((String) handled).increment();
+        } else if (ex != null) {
+            meters.errors(ex.getClass().getSimpleName()).increment();
+        }
+    }
+
+    private RouteMeters meters(String method, String route) {
+        ConcurrentHashMap<String, RouteMeters> byMethod = routes.get(route);
+        if (byMethod == null) {
+            byMethod = routes.computeIfAbsent(route, r -> new ConcurrentHashMap<>());
+        }
+        RouteMeters meters = byMethod.get(method);
+        if (meters == null) {
+            meters = byMethod.computeIfAbsent(method, m -> new RouteMeters(m, route));
+        }
+        return meters;
+    }
+
+    private final class RouteMeters {
+        private final String method;
+        private final String route;
+        private final AtomicReferenceArray<Timer> timersByStatus = new AtomicReferenceArray<>(MAX_STATUS);
+        private final ConcurrentHashMap<String, Counter> errorsByException = new ConcurrentHashMap<>();
+
+        private RouteMeters(String method, String route) {
+            this.method = method;
+            this.route = route;
+        }
+
+        private Timer timer(int status) {
+            int index = status > 0 && status < MAX_STATUS ? status : 0;
+            Timer timer = timersByStatus.get(index);
+            if (timer == null) {
+                // Le registre renvoie le même timer en cas de création concurrente
+                timer = Timer.builder("http.server.requests")
+                        .description("Latence des requêtes HTTP par route")
+                        .tags("method", method, "route", route, "status", Integer.toString(status), "outcome", outcome(status))
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry);
+                timersByStatus.set(index, timer);
+            }
+            return timer;
+        }
+
+        private Counter errors(String exception) {
+            Counter counter = errorsByException.get(exception);
+            if (counter == null) {
+                counter = errorsByException.computeIfAbsent(exception, e -> Counter.builder("http.server.errors")
+                        .description("Requêtes terminées par une exception, par type")
+                        .tags("method", method, "route", route, "exception", e)
+                        .register(registry));
+            }
+            return counter;
+        }
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return status >= 200 && status < 300 ? "SUCCESS" : "OTHER";
+    }
+}
@@ -0,0 +1,51 @@
+package com.cinhub.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Ajoute l'en-tête {@code Server-Timing: db;dur=12.4;desc="7 queries"} aux réponses des
+ * contrôleurs, juste avant l'écriture du corps, à partir des {@link SqlStatistics} de la requête.
+ * Sans profilage SQL ({@code cinhub.sql.profiling.enabled=false}), aucune instruction n'est
+ * comptée : l'en-tête n'est pas ajouté plutôt que d'annoncer faussement 0 requête.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final boolean profilingEnabled;
+
+    public ServerTimingAdvice(@Value("${cinhub.sql.profiling.enabled:true}") boolean profilingEnabled) {
+        this.profilingEnabled = profilingEnabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return profilingEnabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object statistics = ((ServletServerHttpRequest) request).getServletRequest()
+                    .getAttribute(SqlProfilingListener.STATISTICS_ATTRIBUTE);
+            int queries = statistics instanceof SqlStatistics ? ((SqlStatistics) statistics).getQueryCount() : 0;
+            double millis = statistics instanceof SqlStatistics ? ((SqlStatistics) statistics).getElapsedMillis() : 0;
+            response.getHeaders().add(SERVER_TIMING, String.format(Locale.ROOT,
+                    "db;dur=%.1f;desc=\"%d %s\"", millis, queries, queries == 1 ? "query" : "queries"));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,124 @@
+package com.cinhub.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Écoute chaque exécution JDBC passant par le proxy de la source de données :
+ * <ul>
+ *     <li>cumule nombre d'instructions et durée dans les {@link SqlStatistics} de la requête HTTP
+ *     en cours (restitués dans l'en-tête {@code Server-Timing}) ;</li>
+ *     <li>journalise, par échantillonnage, les requêtes lentes avec la route et la méthode de
+ *     service à l'origine de l'appel ;</li>
+ *     <li>signale une fois par requête HTTP le dépassement d'un nombre d'instructions (N+1).</li>
+ * </ul>
+ * La pile d'appels n'est parcourue que pour les requêtes effectivement journalisées.
+ */
+public class SqlProfilingListener implements QueryExecutionListener {
+
+    /** Attribut de requête portant les {@link SqlStatistics} de la requête HTTP. */
+    public static final String STATISTICS_ATTRIBUTE = SqlProfilingListener.class.getName() + ".STATISTICS";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlProfilingListener.class);
+
+    private static final String START_KEY = "cinhub.start";
+    private static final String SERVICE_PACKAGE = "com.cinhub.service.";
+    private static final String APPLICATION_PACKAGE = "com.cinhub.";
+    private static final int MAX_LOGGED_SQL_LENGTH = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowQueryNanos;
+    private final double sampleRate;
+    private final int maxQueriesPerRequest;
+
+    public SqlProfilingListener(long slowQueryThresholdMillis, double sampleRate, int maxQueriesPerRequest) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+        this.sampleRate = sampleRate;
+        this.maxQueriesPerRequest = maxQueriesPerRequest;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_KEY, Long.class);
+        long elapsed = start != null ? System.nanoTime() - start : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            SqlStatistics statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+            if (statistics == null) {
+                statistics = new SqlStatistics();
+                request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+            }
+            statistics.record(1, elapsed);
+            if (maxQueriesPerRequest > 0 && statistics.getQueryCount() > maxQueriesPerRequest
+                    && statistics.markQueryCountWarned()) {
+                logger.warn("Plus de {} requêtes SQL pour {} (appelant : {}) : possible N+1",
+                        maxQueriesPerRequest, route(request), caller());
+            }
+        }
+
+        if (elapsed >= slowQueryNanos && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            logger.warn("Requête SQL lente ({} ms{}) - route : {}, appelant : {} - {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    execInfo.isBatch() ? ", lot de " + execInfo.getBatchSize() : "",
+                    request != null ? route(request) : "-",
+                    caller(),
+                    sql(queryInfoList));
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern instanceof String ? pattern : request.getRequestURI());
+    }
+
+    // Première méthode de service dans la pile, à défaut le premier appelant applicatif
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> {
+            List<StackWalker.StackFrame> application = frames
+                    .filter(f -> f.getClassName().startsWith(APPLICATION_PACKAGE)
+                            && !f.getClassName().startsWith("com.cinhub.metrics.")
+                            && !f.getClassName().startsWith("com.cinhub.datasource.")
+                            && !f.getClassName().contains("$$"))
+                    .collect(Collectors.toList());
+            return application.stream()
+                    .filter(f -> f.getClassName().startsWith(SERVICE_PACKAGE))
+                    .findFirst()
+                    .or(() -> application.stream().findFirst());
+        });
+        return frame.map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("-");
+    }
+
+    private static String sql(List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream()
+                .map(q -> WHITESPACE.matcher(q.getQuery()).replaceAll(" ").trim())
+                .collect(Collectors.joining("; "));
+        return sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "…" : sql;
+    }
+}
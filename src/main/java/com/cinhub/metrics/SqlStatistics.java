@@ -0,0 +1,33 @@
+package com.cinhub.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes SQL exécutées pour une requête HTTP : nombre d'instructions et temps cumulé
+ * côté JDBC. Conservé en attribut de requête par {@link SqlProfilingListener}.
+ */
+public class SqlStatistics {
+
+    private int queryCount;
+    private long elapsedNanos;
+    private boolean queryCountWarned;
+
+    void record(int queries, long nanos) {
+        queryCount += queries;
+        elapsedNanos += nanos;
+    }
+
+    boolean markQueryCountWarned() {
+        boolean first = !queryCountWarned;
+        queryCountWarned = true;
+        return first;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,239 @@
+package com.cinhub.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Chronologie du démarrage d'un contexte Spring, alimentée par les étapes que le
+ * conteneur publie (post-traitement des définitions, instanciation de chaque bean...).
+ * À la fin du rafraîchissement, le temps est ventilé par phase (étapes directement sous
+ * {@code spring.context.refresh}) et par bean, en temps propre : les dépendances créées
+ * pendant la construction d'un bean sont décomptées de son temps.
+ *
+ * <p>Seul le thread qui rafraîchit le contexte est suivi ; les étapes ultérieures (beans
+ * {@code @Lazy} créés à la première requête) ne sont pas enregistrées.
+ */
+public class StartupTimeline implements ApplicationStartup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private static final String REFRESH_STEP = "spring.context.refresh";
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+    private static final int TOP_BEANS = 10;
+
+    private final String contextName;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Step> active = new ArrayDeque<>();
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private final List<BeanTiming> beans = new ArrayList<>();
+    private Thread owner;
+    private long nextId;
+    private volatile boolean finished;
+    private volatile String report;
+
+    public StartupTimeline(String contextName) {
+        this(contextName, System::nanoTime);
+    }
+
+    StartupTimeline(String contextName, LongSupplier clock) {
+        this.contextName = contextName;
+        this.clock = clock;
+    }
+
+    /**
+     * Rapport du dernier démarrage, ou null tant que le rafraîchissement n'est pas terminé
+     */
+    String getReport() {
+        return report;
+    }
+
+    @Override
+    public StartupStep start(String name) {
+        lock.lock();
+        try {
+            if (finished) {
+                return ApplicationStartup.DEFAULT.start(name);
+            }
+            if (owner == null) {
+                owner = Thread.currentThread();
+            } else if (owner != Thread.currentThread()) {
+                return ApplicationStartup.DEFAULT.start(name);
+            }
+            Step step = new Step(nextId++, name, active.peek());
+            active.push(step);
+            return step;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void end(Step step) {
+        long duration = clock.getAsLong() - step.startNanos;
+        lock.lock();
+        try {
+            record(step, duration);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(Step step, long duration) {
+        // Une étape restée ouverte (exception) est close avec celle qui l'englobe
+        Step top;
+        do {
+            top = active.poll();
+        } while (top != null && top != step);
+        if (step.parent != null) {
+            step.parent.childNanos += duration;
+            if (REFRESH_STEP.equals(step.parent.name)) {
+                long[] phase = phases.computeIfAbsent(step.name, n -> new long[2]);
+                phase[0] += duration;
+                phase[1]++;
+            }
+        }
+        if (BEAN_STEP.equals(step.name)) {
+            beans.add(new BeanTiming(step.tag("beanName"), duration - step.childNanos));
+        }
+        if (REFRESH_STEP.equals(step.name)) {
+            finished = true;
+            report(duration);
+        }
+    }
+
+    private void report(long refreshNanos) {
+        StringBuilder summary = new StringBuilder(String.format("Démarrage du %s en %d ms", contextName, millis(refreshNanos)));
+        long phasesNanos = 0;
+        for (Map.Entry<String, long[]> phase : phases.entrySet()) {
+            long[] timing = phase.getValue();
+            phasesNanos += timing[0];
+            summary.append(String.format("%n  %-40s %6d ms", phase.getKey(), millis(timing[0])));
+            if (timing[1] > 1) {
+                summary.append(String.format(" (%d étapes)", timing[1]));
+            }
+        }
+        summary.append(String.format("%n  %-40s %6d ms", "autres (chargement, événements de fin)",
+                millis(refreshNanos - phasesNanos)));
+
+        beans.sort(Comparator.comparingLong((BeanTiming b) -> b.selfNanos).reversed());
+        summary.append(String.format("%n  %d bean(s) instancié(s), les plus lents (temps propre) :", beans.size()));
+        for (BeanTiming bean : beans.subList(0, Math.min(TOP_BEANS, beans.size()))) {
+            summary.append(String.format("%n    %-38s %6d ms", bean.name, millis(bean.selfNanos)));
+        }
+        this.report = summary.toString();
+        logger.info(this.report);
+        beans.clear();
+        phases.clear();
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static final class BeanTiming {
+
+        private final String name;
+        private final long selfNanos;
+
+        private BeanTiming(String name, long selfNanos) {
+            this.name = name;
+            this.selfNanos = selfNanos;
+        }
+    }
+
+    private final class Step implements StartupStep {
+
+        private final long id;
+        private final String name;
+        private final Step parent;
+        private final long startNanos = clock.getAsLong();
+        private final List<Tag> tags = new ArrayList<>(2);
+        private long childNanos;
+
+        private Step(long id, String name, Step parent) {
+            this.id = id;
+            this.name = name;
+            this.parent = parent;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parent != null ? parent.id : null;
+        }
+
+        @Override
+        public StartupStep tag(String key, String value) {
+            tags.add(new SimpleTag(key, value));
+            return this;
+        }
+
+        @Override
+        public StartupStep tag(String key, Supplier<String> value) {
+            return tag(key, value.get());
+        }
+
+        @Override
+        public Tags getTags() {
+            return () -> Collections.unmodifiableList(tags).iterator();
+        }
+
+        @Override
+        public void end() {
+            StartupTimeline.this.end(this);
+        }
+
+        private String tag(String key) {
+            for (Tag tag : tags) {
+                if (tag.getKey().equals(key)) {
+                    return tag.getValue();
+                }
+            }
+            return name;
+        }
+    }
+
+    private static final class SimpleTag implements StartupStep.Tag {
+
+        private final String key;
+        private final String value;
+
+        private SimpleTag(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.cinhub.repository;
 
+import com.cinhub.dto.CategoryDTO;
 import com.cinhub.entity.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    String SELECT_CATEGORY_DTO = "SELECT new com.cinhub.dto.CategoryDTO(c.idCategory, c.name, c.description) FROM Category c ";
+
     Optional<Category> findByName(String name);
     List<Category> findByNameContainingIgnoreCase(String name);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByName(String name);
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.films WHERE c.idCategory = :id")
     Optional<Category> findByIdWithFilms(@Param("id") Long id);
@@ -20,4 +31,20 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findAllWithFilms();
     @Query("SELECT c FROM Category c WHERE c.films IS EMPTY")
     List<Category> findAllWithoutFilms();
+    @Query("SELECT c FROM Category c WHERE c.idCategory > :afterId ORDER BY c.idCategory")
+    List<Category> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.version AS version, c.updatedAt AS updatedAt FROM Category c WHERE c.idCategory = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+    @Query("SELECT COUNT(c) AS rowCount, SUM(c.version) AS versionSum, MAX(c.idCategory) AS maxId, " +
+            "MAX(c.updatedAt) AS lastUpdatedAt FROM Category c")
+    TableVersionView findTableVersion();
+    @Query(SELECT_CATEGORY_DTO + "WHERE c.idCategory = :id")
+    Optional<CategoryDTO> findDtoById(@Param("id") Long id);
+    @Query(SELECT_CATEGORY_DTO + "WHERE c.idCategory > :afterId ORDER BY c.idCategory")
+    List<CategoryDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query(SELECT_CATEGORY_DTO + "WHERE c.idCategory IN :ids")
+    List<CategoryDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    @Query(SELECT_CATEGORY_DTO + "WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY c.idCategory")
+    List<CategoryDTO> findDtosByNameContaining(@Param("name") String name, Pageable pageable);
 }
\ No newline at end of file
@@ -1,17 +1,27 @@
 package com.cinhub.repository;
 
+import com.cinhub.dto.DirectorDTO;
 import com.cinhub.entity.Director;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface DirectorRepository extends JpaRepository<Director, Long> {
 
+    String SELECT_DIRECTOR_DTO = "SELECT new com.cinhub.dto.DirectorDTO(d.idDirector, d.firstName, d.lastName, " +
+            "d.nationality, d.birthDate, d.biography) FROM Director d ";
+
     List<Director> findByLastNameContainingIgnoreCase(String lastName);
     List<Director> findByFirstNameContainingIgnoreCase(String firstName);
     List<Director> findByNationality(String nationality);
@@ -19,10 +29,28 @@ public interface DirectorRepository extends JpaRepository<Director, Long> {
     Optional<Director> findByFirstNameAndLastName(@Param("firstName") String firstName, @Param("lastName") String lastName);
     @Query("SELECT d FROM Director d LEFT JOIN FETCH d.films WHERE d.idDirector = :id")
     Optional<Director> findByIdWithFilms(@Param("id") Long id);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT CASE WHEN COUNT(d) > 0 THEN true ELSE false END FROM Director d WHERE LOWER(d.firstName) = LOWER(:firstName) AND LOWER(d.lastName) = LOWER(:lastName)")
     boolean existsByFullName(@Param("firstName") String firstName, @Param("lastName") String lastName);
     @Query("SELECT DISTINCT d FROM Director d INNER JOIN d.films")
     List<Director> findAllWithFilms();
     @Query("SELECT d FROM Director d WHERE d.films IS EMPTY")
     List<Director> findAllWithoutFilms();
+    @Query("SELECT d FROM Director d WHERE d.idDirector > :afterId ORDER BY d.idDirector")
+    List<Director> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d.version AS version, d.updatedAt AS updatedAt FROM Director d WHERE d.idDirector = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+    @Query(SELECT_DIRECTOR_DTO + "WHERE d.idDirector = :id")
+    Optional<DirectorDTO> findDtoById(@Param("id") Long id);
+    @Query(SELECT_DIRECTOR_DTO + "WHERE d.idDirector > :afterId ORDER BY d.idDirector")
+    List<DirectorDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query(SELECT_DIRECTOR_DTO + "WHERE d.idDirector IN :ids")
+    List<DirectorDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    @Query(SELECT_DIRECTOR_DTO + "WHERE LOWER(d.lastName) LIKE LOWER(CONCAT('%', :lastName, '%')) ORDER BY d.idDirector")
+    List<DirectorDTO> findDtosByLastNameContaining(@Param("lastName") String lastName, Pageable pageable);
+    @Query(SELECT_DIRECTOR_DTO + "WHERE LOWER(d.firstName) LIKE LOWER(CONCAT('%', :firstName, '%')) ORDER BY d.idDirector")
+    List<DirectorDTO> findDtosByFirstNameContaining(@Param("firstName") String firstName, Pageable pageable);
+    @Query(SELECT_DIRECTOR_DTO + "WHERE d.nationality = :nationality")
+    List<DirectorDTO> findDtosByNationality(@Param("nationality") String nationality);
 }
\ No newline at end of file
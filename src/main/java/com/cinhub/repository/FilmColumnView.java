@@ -0,0 +1,14 @@
+package com.cinhub.repository;
+
+/**
+ * Projection des attributs numériques d'un film, chargés dans le magasin en colonnes
+ */
+public interface FilmColumnView {
+    Long getIdFilm();
+    Integer getReleaseYear();
+    Integer getDuration();
+    Double getRating();
+    Long getIdDirector();
+    Long getIdCategory();
+    long getVersion();
+}
@@ -0,0 +1,59 @@
+package com.cinhub.repository;
+
+import com.cinhub.dto.FilmFacetFilterDTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Facettes de GET /films/facets. {@link #bucketOf} ramène une valeur brute (identifiant de
+ * catégorie, année, note, nationalité) à sa valeur de facette ; l'index en mémoire et le
+ * repli en base l'utilisent tous deux, ce qui garantit les mêmes tranches.
+ */
+public enum FilmFacet {
+
+    CATEGORY(FilmFacetFilterDTO::getCategoryIds),
+    DECADE(FilmFacetFilterDTO::getDecades),
+    RATING(FilmFacetFilterDTO::getRatings),
+    NATIONALITY(FilmFacetFilterDTO::getNationalities);
+
+    private static final int LAST_RATING_BUCKET = 9;
+
+    private final Function<FilmFacetFilterDTO, List<?>> selection;
+
+    FilmFacet(Function<FilmFacetFilterDTO, List<?>> selection) {
+        this.selection = selection;
+    }
+
+    /**
+     * Valeurs cochées pour cette facette, liste vide si aucune
+     */
+    public List<?> selectedIn(FilmFacetFilterDTO filter) {
+        List<?> values = selection.apply(filter);
+        return values != null ? values : List.of();
+    }
+
+    /**
+     * Valeur de facette d'une valeur brute, {@code null} si le film n'en a pas
+     */
+    public Object bucketOf(Object raw) {
+        if (raw == null) {
+            return null;
+        }
+        switch (this) {
+            case DECADE:
+                int year = ((Number) raw).intValue();
+                return year - Math.floorMod(year, 10);
+            case RATING:
+                return Math.min(LAST_RATING_BUCKET, (int) Math.floor(((Number) raw).doubleValue()));
+            case NATIONALITY:
+                return raw.toString().isBlank() ? null : raw;
+            default:
+                return raw;
+        }
+    }
+
+    public static boolean isLastRatingBucket(int bucket) {
+        return bucket >= LAST_RATING_BUCKET;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinhub.repository;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Comptes bruts d'une requête de facettes : total de la sélection complète, puis pour
+ * chaque facette le nombre de films par valeur sous la sélection des autres facettes
+ */
+public class FilmFacetCounts {
+
+    private final long total;
+    private final Map<FilmFacet, Map<Object, Long>> counts = new EnumMap<>(FilmFacet.class);
+
+    public FilmFacetCounts(long total) {
+        this.total = total;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void add(FilmFacet facet, Object value, long count) {
+        counts.computeIfAbsent(facet, f -> new HashMap<>()).merge(value, count, Long::sum);
+    }
+
+    public Map<Object, Long> get(FilmFacet facet) {
+        return counts.getOrDefault(facet, Map.of());
+    }
+}
@@ -0,0 +1,14 @@
+package com.cinhub.repository;
+
+/**
+ * Projection du classement par note : juste ce qu'affiche un palmarès, plus la version
+ * qui ordonne les mises à jour concurrentes
+ */
+public interface FilmRatingView {
+    Long getIdFilm();
+    String getTitle();
+    Integer getReleaseYear();
+    Double getRating();
+    Long getIdCategory();
+    long getVersion();
+}
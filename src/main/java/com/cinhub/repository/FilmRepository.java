@@ -1,34 +1,114 @@
 package com.cinhub.repository;
 
+import com.cinhub.dto.FilmDTO;
 import com.cinhub.entity.Film;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 
 @Repository
-public interface FilmRepository extends JpaRepository<Film, Long> {
+public interface FilmRepository extends JpaRepository<Film, Long>, FilmRepositoryCustom {
+
+    // Projection directe en FilmDTO (lecture seule, aucune entité hydratée ni instantané de dirty checking)
+    String SELECT_FILM_DTO = "SELECT new com.cinhub.dto.FilmDTO(f.idFilm, f.title, f.releaseYear, f.duration, f.synopsis, f.rating, " +
+            "d.idDirector, d.firstName, d.lastName, d.nationality, d.birthDate, d.biography, " +
+            "c.idCategory, c.name, c.description) " +
+            "FROM Film f JOIN f.director d JOIN f.category c ";
+
+    String SELECT_FILM_RATING = "SELECT f.idFilm AS idFilm, f.title AS title, f.releaseYear AS releaseYear, " +
+            "f.rating AS rating, f.category.idCategory AS idCategory, f.version AS version FROM Film f ";
+
     Optional<Film> findByTitle(String title);
-    List<Film> findByTitleContainingIgnoreCase(String title);
-    List<Film> findByReleaseYear(Integer releaseYear);
-    @Query("SELECT f FROM Film f WHERE f.director.idDirector = :directorId")
+    // Les listes de films chargent réalisateur et catégorie dans la même requête (pas de N+1),
+    // ainsi que le synopsis différé que FilmMapper.toDTO lit pour chaque film
+    @EntityGraph(attributePaths = {"director", "category"})
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES WHERE LOWER(f.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    List<Film> findByTitleContainingIgnoreCase(@Param("title") String title);
+    @EntityGraph(attributePaths = {"director", "category"})
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES WHERE f.releaseYear = :releaseYear")
+    List<Film> findByReleaseYear(@Param("releaseYear") Integer releaseYear);
+    @EntityGraph(attributePaths = {"director", "category"})
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES WHERE f.director.idDirector = :directorId")
     List<Film> findByDirectorId(@Param("directorId") Long directorId);
-    @Query("SELECT f FROM Film f WHERE f.category.idCategory = :categoryId")
+    @EntityGraph(attributePaths = {"director", "category"})
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES WHERE f.category.idCategory = :categoryId")
     List<Film> findByCategoryId(@Param("categoryId") Long categoryId);
-    @Query("SELECT f FROM Film f WHERE f.rating >= :minRating")
+    @EntityGraph(attributePaths = {"director", "category"})
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES WHERE f.rating >= :minRating")
     List<Film> findByRatingGreaterThanEqual(@Param("minRating") Double minRating);
-    @Query("SELECT f FROM Film f WHERE f.releaseYear BETWEEN :startYear AND :endYear")
+    @EntityGraph(attributePaths = {"director", "category"})
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES WHERE f.releaseYear BETWEEN :startYear AND :endYear")
     List<Film> findByReleaseYearBetween(@Param("startYear") Integer startYear, @Param("endYear") Integer endYear);
-    @Query("SELECT f FROM Film f JOIN FETCH f.director JOIN FETCH f.category WHERE f.idFilm = :id")
+    // Film complet (synopsis différé compris), réalisateur et catégorie en une requête : de quoi
+    // modifier l'entité puis la renvoyer en FilmDTO sans chargement supplémentaire
+    @Query("SELECT f FROM Film f FETCH ALL PROPERTIES JOIN FETCH f.director JOIN FETCH f.category WHERE f.idFilm = :id")
     Optional<Film> findByIdWithDetails(@Param("id") Long id);
-    @Query("SELECT DISTINCT f FROM Film f JOIN FETCH f.director JOIN FETCH f.category")
+    @Query("SELECT DISTINCT f FROM Film f FETCH ALL PROPERTIES JOIN FETCH f.director JOIN FETCH f.category")
     List<Film> findAllWithDetails();
+    @Query("SELECT f.idFilm AS idFilm, f.title AS title, f.synopsis AS synopsis FROM Film f WHERE f.idFilm > :afterId ORDER BY f.idFilm")
+    List<FilmTextView> findTextPage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query("SELECT f.idFilm AS idFilm, f.title AS title FROM Film f WHERE f.idFilm > :afterId ORDER BY f.idFilm")
+    List<FilmTitleView> findTitlePage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query("SELECT f.idFilm AS idFilm, f.releaseYear AS releaseYear, f.duration AS duration, f.rating AS rating, " +
+            "f.director.idDirector AS idDirector, f.category.idCategory AS idCategory, f.version AS version " +
+            "FROM Film f WHERE f.idFilm > :afterId ORDER BY f.idFilm")
+    List<FilmColumnView> findColumnPage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query(SELECT_FILM_RATING + "WHERE f.idFilm > :afterId ORDER BY f.idFilm")
+    List<FilmRatingView> findRatingPage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query(SELECT_FILM_RATING + "WHERE f.rating IS NOT NULL AND (:categoryId IS NULL OR f.category.idCategory = :categoryId) " +
+            "ORDER BY f.rating DESC, f.idFilm")
+    List<FilmRatingView> findTopRated(@Param("categoryId") Long categoryId, Pageable pageable);
     boolean existsByTitle(String title);
 
+    @Query("SELECT f.version AS version, d.version AS directorVersion, c.version AS categoryVersion, " +
+            "f.updatedAt AS updatedAt, d.updatedAt AS directorUpdatedAt, c.updatedAt AS categoryUpdatedAt " +
+            "FROM Film f JOIN f.director d JOIN f.category c WHERE f.idFilm = :id")
+    Optional<FilmVersionView> findVersionById(@Param("id") Long id);
+    @Query(SELECT_FILM_DTO + "WHERE f.idFilm = :id")
+    Optional<FilmDTO> findDtoById(@Param("id") Long id);
+    @Query(SELECT_FILM_DTO + "WHERE f.idFilm > :afterId ORDER BY f.idFilm")
+    List<FilmDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+    @Query(SELECT_FILM_DTO + "WHERE f.idFilm IN :ids")
+    List<FilmDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    @Query(SELECT_FILM_DTO + "WHERE LOWER(f.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY f.idFilm")
+    List<FilmDTO> findDtosByTitleContaining(@Param("title") String title, Pageable pageable);
+    @Query(SELECT_FILM_DTO + "WHERE LOWER(f.title) LIKE LOWER(CONCAT('%', :text, '%')) "
+            + "OR LOWER(f.synopsis) LIKE LOWER(CONCAT('%', :text, '%')) ORDER BY f.idFilm")
+    List<FilmDTO> findDtosByTitleOrSynopsisContaining(@Param("text") String text, Pageable pageable);
+    @Query(SELECT_FILM_DTO + "WHERE f.releaseYear = :releaseYear")
+    List<FilmDTO> findDtosByReleaseYear(@Param("releaseYear") Integer releaseYear);
+    @Query(SELECT_FILM_DTO + "WHERE d.idDirector = :directorId")
+    List<FilmDTO> findDtosByDirectorId(@Param("directorId") Long directorId);
+    @Query(SELECT_FILM_DTO + "WHERE c.idCategory = :categoryId")
+    List<FilmDTO> findDtosByCategoryId(@Param("categoryId") Long categoryId);
+    @Query(SELECT_FILM_DTO + "WHERE f.rating >= :minRating")
+    List<FilmDTO> findDtosByMinRating(@Param("minRating") Double minRating);
+    // Lecture par curseur côté serveur (useCursorFetch=true pour MySQL) au lieu de tout charger
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_FILM_DTO + "ORDER BY f.idFilm")
+    Stream<FilmDTO> streamAllDtos();
+    @Query("SELECT f.idFilm AS idFilm, f.title AS title FROM Film f WHERE f.title IN :titles")
+    List<FilmTitleView> findTitleViewsByTitleIn(@Param("titles") Collection<String> titles);
+
     @Query("SELECT COUNT(f) FROM Film f WHERE f.director.idDirector = :directorId")
     Long countByDirectorId(@Param("directorId") Long directorId);
     @Query("SELECT COUNT(f) FROM Film f WHERE f.category.idCategory = :categoryId")
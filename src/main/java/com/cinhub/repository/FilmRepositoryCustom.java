@@ -0,0 +1,30 @@
+package com.cinhub.repository;
+
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFacetFilterDTO;
+import com.cinhub.dto.FilmFilterDTO;
+
+import java.util.List;
+
+/**
+ * Requêtes de films construites dynamiquement (Criteria API)
+ */
+public interface FilmRepositoryCustom {
+
+    /**
+     * Films répondant à tous les critères renseignés, triés, après la position
+     * ({@code afterValue}, {@code afterId}) de la page précédente si {@code afterId} est fourni.
+     */
+    List<FilmDTO> findDtosByFilter(FilmFilterDTO filter, FilmSort sort, boolean descending,
+                                   Long afterId, Object afterValue, int limit);
+
+    /**
+     * Nombre de films répondant à tous les critères renseignés (le tri est ignoré)
+     */
+    long countByFilter(FilmFilterDTO filter);
+
+    /**
+     * Comptes de facettes de la sélection, une requête groupée par facette
+     */
+    FilmFacetCounts countFacets(FilmFacetFilterDTO filter);
+}
@@ -0,0 +1,229 @@
+package com.cinhub.repository;
+
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFacetFilterDTO;
+import com.cinhub.dto.FilmFilterDTO;
+import com.cinhub.entity.Category;
+import com.cinhub.entity.Director;
+import com.cinhub.entity.Film;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * Filtre multicritère des films en une seule requête projetée en FilmDTO.
+ *
+ * <p>Chaque critère est une comparaison directe sur une colonne (aucune fonction appliquée),
+ * et les filtres par catégorie ou réalisateur portent sur les clés étrangères de
+ * {@code films} : l'optimiseur peut choisir l'index le plus sélectif parmi
+ * idx_films_release_year, idx_films_rating, idx_films_category_rating,
+ * idx_films_director_year et idx_directors_nationality.
+ *
+ * <p>La pagination est par clé : la page suivante reprend strictement après le couple
+ * (valeur de tri, identifiant) de la dernière ligne, sans OFFSET. Les notes absentes sont
+ * ordonnées comme le font MySQL et H2, c'est-à-dire avant toute valeur en tri croissant.
+ */
+public class FilmRepositoryCustomImpl implements FilmRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FilmDTO> findDtosByFilter(FilmFilterDTO filter, FilmSort sort, boolean descending,
+                                          Long afterId, Object afterValue, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FilmDTO> query = cb.createQuery(FilmDTO.class);
+        Root<Film> film = query.from(Film.class);
+        Join<Film, Director> director = film.join("director");
+        Join<Film, Category> category = film.join("category");
+
+        query.select(cb.construct(FilmDTO.class,
+                film.get("idFilm"), film.get("title"), film.get("releaseYear"), film.get("duration"),
+                film.get("synopsis"), film.get("rating"),
+                director.get("idDirector"), director.get("firstName"), director.get("lastName"),
+                director.get("nationality"), director.get("birthDate"), director.get("biography"),
+                category.get("idCategory"), category.get("name"), category.get("description")));
+
+        List<Predicate> predicates = filterPredicates(cb, film, director, filter);
+        Path<Long> id = film.get("idFilm");
+        if (sort == FilmSort.ID) {
+            if (afterId != null) {
+                predicates.add(descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+            }
+            query.orderBy(descending ? cb.desc(id) : cb.asc(id));
+        } else {
+            Path<Comparable<Object>> key = film.get(sort.getAttribute());
+            if (afterId != null) {
+                predicates.add(after(cb, key, id, afterValue, afterId, descending));
+            }
+            Order keyOrder = descending ? cb.desc(key) : cb.asc(key);
+            query.orderBy(keyOrder, cb.asc(id));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query)
+                .setHint(HINT_READONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countByFilter(FilmFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Film> film = query.from(Film.class);
+        Join<Film, Director> director = film.join("director");
+
+        query.select(cb.count(film));
+        query.where(filterPredicates(cb, film, director, filter).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public FilmFacetCounts countFacets(FilmFacetFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> totalQuery = cb.createQuery(Long.class);
+        Root<Film> totalFilm = totalQuery.from(Film.class);
+        Join<Film, Director> totalDirector = totalFilm.join("director");
+        totalQuery.select(cb.count(totalFilm));
+        totalQuery.where(facetPredicates(cb, totalFilm, totalDirector, filter, null).toArray(new Predicate[0]));
+        FilmFacetCounts counts = new FilmFacetCounts(entityManager.createQuery(totalQuery).getSingleResult());
+
+        for (FilmFacet facet : FilmFacet.values()) {
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+            Root<Film> film = query.from(Film.class);
+            Join<Film, Director> director = film.join("director");
+            // Groupement sur la valeur brute (année, note arrondie à l'entier inférieur),
+            // ramenée à sa tranche par FilmFacet.bucketOf
+            Expression<?> value = facetValue(cb, film, director, facet);
+            List<Predicate> predicates = facetPredicates(cb, film, director, filter, facet);
+            predicates.add(cb.isNotNull(value));
+            query.multiselect(value, cb.count(film))
+                    .where(predicates.toArray(new Predicate[0]))
+                    .groupBy(value);
+            for (Object[] row : entityManager.createQuery(query).setHint(HINT_READONLY, true).getResultList()) {
+                Object bucket = facet.bucketOf(row[0]);
+                if (bucket != null) {
+                    counts.add(facet, bucket, (Long) row[1]);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static Expression<?> facetValue(CriteriaBuilder cb, Root<Film> film, Join<Film, Director> director,
+                                            FilmFacet facet) {
+        switch (facet) {
+            case CATEGORY:
+                return film.get("category").get("idCategory");
+            case DECADE:
+                return film.get("releaseYear");
+            case RATING:
+                return cb.function("FLOOR", Double.class, film.get("rating"));
+            default:
+                return director.get("nationality");
+        }
+    }
+
+    /**
+     * Prédicats de toutes les facettes sélectionnées sauf {@code excluded} : valeurs d'une
+     * facette par OU, facettes par ET, décennies et tranches de note en intervalles indexables
+     */
+    private static List<Predicate> facetPredicates(CriteriaBuilder cb, Root<Film> film, Join<Film, Director> director,
+                                                   FilmFacetFilterDTO filter, FilmFacet excluded) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (FilmFacet facet : FilmFacet.values()) {
+            List<?> selected = facet.selectedIn(filter);
+            if (facet == excluded || selected.isEmpty()) {
+                continue;
+            }
+            switch (facet) {
+                case CATEGORY:
+                    predicates.add(film.get("category").get("idCategory").in(selected));
+                    break;
+                case DECADE:
+                    Path<Integer> year = film.get("releaseYear");
+                    predicates.add(cb.or(selected.stream()
+                            .map(decade -> cb.between(year, (Integer) decade, (Integer) decade + 9))
+                            .toArray(Predicate[]::new)));
+                    break;
+                case RATING:
+                    Path<Double> rating = film.get("rating");
+                    predicates.add(cb.or(selected.stream()
+                            .map(bucket -> FilmFacet.isLastRatingBucket((Integer) bucket)
+                                    ? cb.greaterThanOrEqualTo(rating, ((Integer) bucket).doubleValue())
+                                    : cb.and(cb.greaterThanOrEqualTo(rating, ((Integer) bucket).doubleValue()),
+                                    cb.lessThan(rating, (Integer) bucket + 1.0)))
+                            .toArray(Predicate[]::new)));
+                    break;
+                default:
+                    predicates.add(director.get("nationality").in(selected));
+            }
+        }
+        return predicates;
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Film> film, Join<Film, Director> director,
+                                                    FilmFilterDTO filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        addRange(cb, predicates, film.get("releaseYear"), filter.getMinYear(), filter.getMaxYear());
+        addRange(cb, predicates, film.get("rating"), filter.getMinRating(), filter.getMaxRating());
+        addRange(cb, predicates, film.get("duration"), filter.getMinDuration(), filter.getMaxDuration());
+        // f.category.idCategory se résout en films.category_id, sans passer par la jointure
+        addIn(predicates, film.get("category").get("idCategory"), filter.getCategoryIds());
+        addIn(predicates, film.get("director").get("idDirector"), filter.getDirectorIds());
+        if (filter.getNationality() != null && !filter.getNationality().isBlank()) {
+            predicates.add(cb.equal(director.get("nationality"), filter.getNationality().trim()));
+        }
+        return predicates;
+    }
+
+    /**
+     * Lignes strictement après (afterValue, afterId) dans l'ordre (clé, id croissant),
+     * les valeurs NULL de la clé venant en tête en tri croissant et en queue en tri décroissant.
+     */
+    private static Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<Long> id,
+                                   Object afterValue, Long afterId, boolean descending) {
+        Predicate sameKeyAfterId;
+        if (afterValue == null) {
+            sameKeyAfterId = cb.and(cb.isNull(key), cb.greaterThan(id, afterId));
+            return descending ? sameKeyAfterId : cb.or(sameKeyAfterId, cb.isNotNull(key));
+        }
+        @SuppressWarnings("unchecked")
+        Comparable<Object> value = (Comparable<Object>) afterValue;
+        sameKeyAfterId = cb.and(cb.equal(key, value), cb.greaterThan(id, afterId));
+        return descending
+                ? cb.or(cb.lessThan(key, value), sameKeyAfterId, cb.isNull(key))
+                : cb.or(cb.greaterThan(key, value), sameKeyAfterId);
+    }
+
+    private static <T extends Comparable<? super T>> void addRange(CriteriaBuilder cb, List<Predicate> predicates,
+                                                                  Expression<T> expression, T min, T max) {
+        if (min != null && max != null) {
+            predicates.add(cb.between(expression, min, max));
+        } else if (min != null) {
+            predicates.add(cb.greaterThanOrEqualTo(expression, min));
+        } else if (max != null) {
+            predicates.add(cb.lessThanOrEqualTo(expression, max));
+        }
+    }
+
+    private static void addIn(List<Predicate> predicates, Expression<Long> expression, Collection<Long> ids) {
+        if (ids != null && !ids.isEmpty()) {
+            predicates.add(expression.in(ids));
+        }
+    }
+}
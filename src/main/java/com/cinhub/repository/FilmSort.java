@@ -0,0 +1,65 @@
+package com.cinhub.repository;
+
+import com.cinhub.dto.FilmDTO;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tris proposés par GET /films/filter. Hors tri par identifiant, les ex aequo sont
+ * départagés par identifiant croissant, ce qui rend l'ordre total et la pagination par
+ * curseur stable.
+ */
+public enum FilmSort {
+
+    ID("id", "idFilm", FilmDTO::getIdFilm, Long::valueOf),
+    TITLE("title", "title", FilmDTO::getTitle, Function.identity()),
+    YEAR("year", "releaseYear", FilmDTO::getReleaseYear, Integer::valueOf),
+    RATING("rating", "rating", FilmDTO::getRating, Double::valueOf),
+    DURATION("duration", "duration", FilmDTO::getDuration, Integer::valueOf);
+
+    private final String param;
+    private final String attribute;
+    private final Function<FilmDTO, Object> extractor;
+    private final Function<String, Object> parser;
+
+    FilmSort(String param, String attribute, Function<FilmDTO, ?> extractor, Function<String, ?> parser) {
+        this.param = param;
+        this.attribute = attribute;
+        this.extractor = extractor::apply;
+        this.parser = parser::apply;
+    }
+
+    public static FilmSort fromParam(String param) {
+        for (FilmSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+
+    public static String allowedParams() {
+        return Arrays.stream(values()).map(FilmSort::getParam).collect(Collectors.joining(", "));
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * Attribut JPA de {@code Film} portant la clé de tri
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Object valueOf(FilmDTO film) {
+        return extractor.apply(film);
+    }
+
+    public Object parseValue(String value) {
+        return parser.apply(value);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cinhub.repository;
+
+/**
+ * Projection des champs texte d'un film, utilisée pour construire l'index de recherche
+ */
+public interface FilmTextView {
+    Long getIdFilm();
+    String getTitle();
+    String getSynopsis();
+}
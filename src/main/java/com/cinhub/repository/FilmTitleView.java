@@ -0,0 +1,9 @@
+package com.cinhub.repository;
+
+/**
+ * Projection légère (identifiant + titre) utilisée par les contrôles d'unicité ensemblistes
+ */
+public interface FilmTitleView {
+    Long getIdFilm();
+    String getTitle();
+}
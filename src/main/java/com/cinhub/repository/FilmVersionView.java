@@ -0,0 +1,15 @@
+package com.cinhub.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versions d'un film et des entités intégrées à sa représentation (réalisateur, catégorie).
+ */
+public interface FilmVersionView {
+    long getVersion();
+    long getDirectorVersion();
+    long getCategoryVersion();
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getDirectorUpdatedAt();
+    LocalDateTime getCategoryUpdatedAt();
+}
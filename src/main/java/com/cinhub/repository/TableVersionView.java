@@ -0,0 +1,13 @@
+package com.cinhub.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Empreinte d'une table entière : toute création, modification ou suppression la change.
+ */
+public interface TableVersionView {
+    long getRowCount();
+    Long getVersionSum();
+    Long getMaxId();
+    LocalDateTime getLastUpdatedAt();
+}
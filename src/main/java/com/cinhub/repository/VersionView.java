@@ -0,0 +1,11 @@
+package com.cinhub.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version et date de dernière modification d'une ligne, lues sans hydrater l'entité.
+ */
+public interface VersionView {
+    long getVersion();
+    LocalDateTime getUpdatedAt();
+}
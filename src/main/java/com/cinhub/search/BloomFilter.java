@@ -0,0 +1,119 @@
+package com.cinhub.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes, utilisable sans verrou par plusieurs threads.
+ *
+ * <p>Les bits sont posés par OU atomique sur un {@link AtomicLongArray} : un ajout n'est
+ * jamais perdu, et une clé ajoutée est toujours reconnue par les lectures qui suivent.
+ * {@link #mightContain} ne produit donc jamais de faux négatif, seulement des faux positifs
+ * au taux choisi à la construction. Les k positions sont dérivées de deux empreintes
+ * 64 bits (double hachage de Kirsch-Mitzenmacher).
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Capacité ou taux de faux positifs invalide");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Ajoute la clé ; renvoie {@code false} si tous ses bits étaient déjà posés
+     */
+    public boolean put(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash1 = hash(bytes, SEED_1);
+        long hash2 = hash(bytes, SEED_2) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long previous = words.get(word);
+            while ((previous & mask) == 0) {
+                if (words.compareAndSet(word, previous, previous | mask)) {
+                    changed = true;
+                    break;
+                }
+                previous = words.get(word);
+            }
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+        return changed;
+    }
+
+    /**
+     * {@code false} : la clé n'a jamais été ajoutée. {@code true} : elle l'a peut-être été.
+     */
+    public boolean mightContain(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash1 = hash(bytes, SEED_1);
+        long hash2 = hash(bytes, SEED_2) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nombre d'ajouts ayant modifié le filtre (approximation du nombre de clés distinctes)
+     */
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Taux de faux positifs attendu au remplissage actuel : (1 - e^(-kn/m))^k
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+
+    public long getSizeInBytes() {
+        return bitCount / 8;
+    }
+
+    // FNV-1a 64 bits sur l'UTF-8 de la clé, puis mélange final de MurmurHash3
+    private static long hash(byte[] bytes, long seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
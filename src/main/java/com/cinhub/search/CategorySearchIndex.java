@@ -0,0 +1,80 @@
+package com.cinhub.search;
+
+import com.cinhub.entity.Category;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.CategoryChangedEvent;
+import com.cinhub.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Index en mémoire des noms de catégories
+ */
+@Component
+public class CategorySearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategorySearchIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final CategoryRepository categoryRepository;
+    private final NgramIndex index = new NgramIndex(1);
+    private volatile boolean ready;
+
+    public CategorySearchIndex(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        try {
+            index.clear();
+            Long afterId = 0L;
+            List<Category> page;
+            do {
+                page = categoryRepository.findPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Category category : page) {
+                    index.index(category.getIdCategory(), category.getName());
+                    afterId = category.getIdCategory();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            ready = true;
+            logger.info("Index de recherche des catégories construit : {} catégorie(s) en {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Construction de l'index de recherche des catégories impossible, repli sur la base", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            index.remove(event.getIdCategory());
+        } else {
+            index.index(event.getIdCategory(), event.getCategory().getName());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> search(String query, int limit) {
+        return index.search(query, limit, 1.0);
+    }
+}
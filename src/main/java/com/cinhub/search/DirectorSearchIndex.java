@@ -0,0 +1,88 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.DirectorDTO;
+import com.cinhub.entity.Director;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.DirectorChangedEvent;
+import com.cinhub.repository.DirectorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Index en mémoire des noms et prénoms de réalisateurs
+ */
+@Component
+public class DirectorSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectorSearchIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int LAST_NAME = 0;
+    private static final int FIRST_NAME = 1;
+
+    private final DirectorRepository directorRepository;
+    private final NgramIndex index = new NgramIndex(2);
+    private volatile boolean ready;
+
+    public DirectorSearchIndex(DirectorRepository directorRepository) {
+        this.directorRepository = directorRepository;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        try {
+            index.clear();
+            Long afterId = 0L;
+            List<Director> page;
+            do {
+                page = directorRepository.findPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Director director : page) {
+                    index.index(director.getIdDirector(), director.getLastName(), director.getFirstName());
+                    afterId = director.getIdDirector();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            ready = true;
+            logger.info("Index de recherche des réalisateurs construit : {} réalisateur(s) en {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Construction de l'index de recherche des réalisateurs impossible, repli sur la base", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDirectorChanged(DirectorChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            index.remove(event.getIdDirector());
+        } else {
+            DirectorDTO director = event.getDirector();
+            index.index(director.getIdDirector(), director.getLastName(), director.getFirstName());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> searchByLastName(String query, int limit) {
+        return index.search(query, limit, 1.0, 0.0);
+    }
+
+    public List<Long> searchByFirstName(String query, int limit) {
+        return index.search(query, limit, 0.0, 1.0);
+    }
+}
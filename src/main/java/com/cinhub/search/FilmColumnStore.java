@@ -0,0 +1,559 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFilterDTO;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.repository.FilmColumnView;
+import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.FilmSort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Copie en mémoire, colonne par colonne, des attributs numériques des films (année, note,
+ * durée, réalisateur, catégorie). Les filtres et comptages de {@link FilmFilterDTO} hors
+ * nationalité s'y évaluent par simple parcours de tableaux primitifs, sans requête ; seuls
+ * les films retenus sont ensuite relus en base, par clé primaire.
+ *
+ * <p>Les lignes sont rangées en segments de taille fixe. Les lecteurs travaillent sur un
+ * instantané immuable publié de façon atomique : une mise à jour copie le seul segment
+ * concerné, un ajout écrit après la longueur visible du dernier segment. Les écritures sont
+ * sérialisées par un verrou (sans moniteur, qui épinglerait un thread virtuel) et, comme
+ * dans {@link FilmLeaderboard}, un événement pas plus récent que la ligne connue est ignoré.
+ * Réalisateurs et catégories sont codés par des ordinaux denses, ce qui ramène un filtre
+ * {@code IN} à un tableau de booléens.
+ */
+@Component
+public class FilmColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilmColumnStore.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    // id, année, note, durée, réalisateur, catégorie, version
+    private static final int BYTES_PER_ROW = 8 + 2 + 8 + 4 + 4 + 4 + 8;
+    private static final int NO_ORDINAL = -1;
+
+    private final FilmRepository filmRepository;
+    private final int parallelThreshold;
+
+    // État de l'écrivain, protégé par writeLock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final Map<Long, Integer> directorOrdinals = new HashMap<>();
+    private final Map<Long, Integer> categoryOrdinals = new HashMap<>();
+    private Segment[] segments = new Segment[0];
+    private int rowCount;
+    private int liveCount;
+    private boolean dictionariesChanged;
+
+    private volatile Snapshot snapshot = new Snapshot(new Segment[0], 0, 0, Map.of(), Map.of());
+    private volatile boolean ready;
+
+    public FilmColumnStore(FilmRepository filmRepository,
+                           @Value("${cinhub.column-store.parallel-threshold:100000}") int parallelThreshold) {
+        this.filmRepository = filmRepository;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recharge toutes les lignes ; les événements reçus pendant le parcours sont appliqués
+     * normalement et l'emportent s'ils sont plus récents.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        try {
+            writeLock.lock();
+            try {
+                rowsById.clear();
+                directorOrdinals.clear();
+                categoryOrdinals.clear();
+                segments = new Segment[0];
+                rowCount = 0;
+                liveCount = 0;
+                dictionariesChanged = true;
+                publish();
+            } finally {
+                writeLock.unlock();
+            }
+            Long afterId = 0L;
+            List<FilmColumnView> page;
+            do {
+                page = filmRepository.findColumnPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                writeLock.lock();
+                try {
+                    for (FilmColumnView film : page) {
+                        apply(film.getIdFilm(), film.getVersion(), false, film.getReleaseYear(), film.getRating(),
+                                film.getDuration(), film.getIdDirector(), film.getIdCategory());
+                        afterId = film.getIdFilm();
+                    }
+                    publish();
+                } finally {
+                    writeLock.unlock();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            ready = true;
+            Snapshot current = snapshot;
+            logger.info("Magasin en colonnes des films construit : {} film(s), {} Ko, en {} ms", current.liveCount,
+                    (long) current.segments.length * SEGMENT_SIZE * BYTES_PER_ROW / 1024,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Construction du magasin en colonnes des films impossible, repli sur la base", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onFilmChanged(FilmChangedEvent event) {
+        FilmDTO film = event.getFilm();
+        writeLock.lock();
+        try {
+            if (event.getType() == ChangeType.DELETED || film == null) {
+                apply(event.getIdFilm(), event.getVersion(), true, null, null, null, null, null);
+            } else {
+                apply(event.getIdFilm(), event.getVersion(), false, film.getReleaseYear(), film.getRating(),
+                        film.getDuration(),
+                        film.getDirector() != null ? film.getDirector().getIdDirector() : null,
+                        film.getCategory() != null ? film.getCategory().getIdCategory() : null);
+            }
+            publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Le magasin ne connaît ni la nationalité des réalisateurs ni les titres
+     */
+    public boolean supports(FilmFilterDTO filter, FilmSort sort) {
+        return (filter.getNationality() == null || filter.getNationality().isBlank()) && sort != FilmSort.TITLE;
+    }
+
+    public long count(FilmFilterDTO filter) {
+        Snapshot current = snapshot;
+        Criteria criteria = new Criteria(filter, current);
+        if (criteria.empty) {
+            return 0;
+        }
+        return segmentIndexes(current).mapToLong(s -> countSegment(current.segments[s], criteria)).sum();
+    }
+
+    /**
+     * Identifiants des films retenus, par ordre croissant
+     */
+    public long[] findIds(FilmFilterDTO filter) {
+        Snapshot current = snapshot;
+        Criteria criteria = new Criteria(filter, current);
+        if (criteria.empty) {
+            return new long[0];
+        }
+        long[][] parts = segmentIndexes(current)
+                .mapToObj(s -> idsOfSegment(current.segments[s], criteria))
+                .toArray(long[][]::new);
+        long[] ids = new long[Arrays.stream(parts).mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, ids, offset, part.length);
+            offset += part.length;
+        }
+        // Les créations validées dans le désordre sont ajoutées en fin de magasin
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Identifiants d'une page triée, strictement après ({@code afterValue}, {@code afterId}) si
+     * {@code afterId} est fourni, dans l'ordre de {@link com.cinhub.repository.FilmRepositoryCustom#findDtosByFilter}
+     */
+    public List<Long> findPage(FilmFilterDTO filter, FilmSort sort, boolean descending,
+                               Long afterId, Object afterValue, int limit) {
+        Snapshot current = snapshot;
+        Criteria criteria = new Criteria(filter, current);
+        if (criteria.empty || limit <= 0) {
+            return List.of();
+        }
+        RowOrder order = new RowOrder(sort, descending);
+        Position after = afterId == null ? null : new Position(keyOf(afterValue), afterId);
+        List<Position> candidates = new ArrayList<>();
+        segmentIndexes(current)
+                .mapToObj(s -> topOfSegment(current.segments[s], criteria, order, after, limit))
+                .forEachOrdered(candidates::addAll);
+        candidates.sort(order);
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            ids.add(candidates.get(i).id);
+        }
+        return ids;
+    }
+
+    // Parcours réparti sur le pool fork-join commun au-delà du seuil, un segment par tâche
+    private IntStream segmentIndexes(Snapshot current) {
+        IntStream indexes = IntStream.range(0, current.segments.length);
+        return current.rowCount >= parallelThreshold ? indexes.parallel() : indexes;
+    }
+
+    private static long countSegment(Segment segment, Criteria criteria) {
+        long count = 0;
+        for (int i = 0; i < segment.length; i++) {
+            if (criteria.matches(segment, i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] idsOfSegment(Segment segment, Criteria criteria) {
+        long[] ids = new long[segment.length];
+        int count = 0;
+        for (int i = 0; i < segment.length; i++) {
+            if (criteria.matches(segment, i)) {
+                ids[count++] = segment.id[i];
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    // Les limit meilleures lignes du segment, dans un tas dont la tête est la moins bonne
+    private static Collection<Position> topOfSegment(Segment segment, Criteria criteria, RowOrder order,
+                                                     Position after, int limit) {
+        PriorityQueue<Position> top = new PriorityQueue<>(Math.min(limit, SEGMENT_SIZE), order.reversed());
+        for (int i = 0; i < segment.length; i++) {
+            if (!criteria.matches(segment, i)) {
+                continue;
+            }
+            double key = order.key(segment, i);
+            long id = segment.id[i];
+            if (after != null && order.compare(key, id, after.key, after.id) <= 0) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(new Position(key, id));
+            } else if (order.compare(key, id, top.peek().key, top.peek().id) < 0) {
+                top.poll();
+                top.add(new Position(key, id));
+            }
+        }
+        return top;
+    }
+
+    // Valeur de curseur ramenée au type des clés de tri ; NaN représente une valeur absente
+    private static double keyOf(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    private void apply(long idFilm, long version, boolean deleted, Integer releaseYear, Double rating,
+                       Integer duration, Long idDirector, Long idCategory) {
+        Integer row = rowsById.get(idFilm);
+        if (row == null) {
+            // Une suppression inconnue laisse une ligne supprimée, qui écarte une relecture périmée
+            append(idFilm, version, deleted, releaseYear, rating, duration, idDirector, idCategory);
+            return;
+        }
+        int segmentIndex = row >>> SEGMENT_SHIFT;
+        int offset = row & SEGMENT_MASK;
+        Segment current = segments[segmentIndex];
+        if (current.id[offset] < 0 || (!deleted && current.version[offset] >= version)) {
+            // Suppression déjà connue, ou état déjà appliqué ou plus récent
+            return;
+        }
+        // Copie du seul segment modifié : les instantanés publiés restent intacts
+        Segment copy = current.copy();
+        write(copy, offset, idFilm, version, deleted, releaseYear, rating, duration, idDirector, idCategory);
+        segments[segmentIndex] = copy;
+        if (deleted) {
+            liveCount--;
+        }
+    }
+
+    private void append(long idFilm, long version, boolean deleted, Integer releaseYear, Double rating,
+                        Integer duration, Long idDirector, Long idCategory) {
+        if (rowCount == segments.length * SEGMENT_SIZE) {
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            segments[segments.length - 1] = new Segment();
+        }
+        int segmentIndex = rowCount >>> SEGMENT_SHIFT;
+        Segment last = segments[segmentIndex];
+        // Écriture au-delà de la longueur vue par les instantanés publiés, qui l'ignorent
+        write(last, last.length, idFilm, version, deleted, releaseYear, rating, duration, idDirector, idCategory);
+        segments[segmentIndex] = last.withLength(last.length + 1);
+        rowsById.put(idFilm, rowCount++);
+        if (!deleted) {
+            liveCount++;
+        }
+    }
+
+    private void write(Segment segment, int offset, long idFilm, long version, boolean deleted, Integer releaseYear,
+                       Double rating, Integer duration, Long idDirector, Long idCategory) {
+        segment.id[offset] = deleted ? -idFilm : idFilm;
+        segment.version[offset] = version;
+        segment.year[offset] = releaseYear != null ? releaseYear.shortValue() : 0;
+        segment.rating[offset] = rating != null ? rating : Double.NaN;
+        segment.duration[offset] = duration != null ? duration : 0;
+        segment.director[offset] = deleted ? NO_ORDINAL : ordinal(directorOrdinals, idDirector);
+        segment.category[offset] = deleted ? NO_ORDINAL : ordinal(categoryOrdinals, idCategory);
+    }
+
+    private int ordinal(Map<Long, Integer> ordinals, Long id) {
+        if (id == null) {
+            return NO_ORDINAL;
+        }
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null) {
+            ordinal = ordinals.size();
+            ordinals.put(id, ordinal);
+            dictionariesChanged = true;
+        }
+        return ordinal;
+    }
+
+    private void publish() {
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(segments.clone(), rowCount, liveCount,
+                dictionariesChanged ? Map.copyOf(directorOrdinals) : previous.directorOrdinals,
+                dictionariesChanged ? Map.copyOf(categoryOrdinals) : previous.categoryOrdinals);
+        dictionariesChanged = false;
+    }
+
+    /**
+     * Lignes d'un segment en colonnes. Un identifiant négatif marque un film supprimé ;
+     * une note absente vaut NaN.
+     */
+    private static final class Segment {
+
+        private final long[] id;
+        private final short[] year;
+        private final double[] rating;
+        private final int[] duration;
+        private final int[] director;
+        private final int[] category;
+        private final long[] version;
+        private final int length;
+
+        private Segment() {
+            this(new long[SEGMENT_SIZE], new short[SEGMENT_SIZE], new double[SEGMENT_SIZE], new int[SEGMENT_SIZE],
+                    new int[SEGMENT_SIZE], new int[SEGMENT_SIZE], new long[SEGMENT_SIZE], 0);
+        }
+
+        private Segment(long[] id, short[] year, double[] rating, int[] duration, int[] director, int[] category,
+                        long[] version, int length) {
+            this.id = id;
+            this.year = year;
+            this.rating = rating;
+            this.duration = duration;
+            this.director = director;
+            this.category = category;
+            this.version = version;
+            this.length = length;
+        }
+
+        private Segment withLength(int length) {
+            return new Segment(id, year, rating, duration, director, category, version, length);
+        }
+
+        private Segment copy() {
+            return new Segment(id.clone(), year.clone(), rating.clone(), duration.clone(), director.clone(),
+                    category.clone(), version.clone(), length);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Segment[] segments;
+        private final int rowCount;
+        private final int liveCount;
+        private final Map<Long, Integer> directorOrdinals;
+        private final Map<Long, Integer> categoryOrdinals;
+
+        private Snapshot(Segment[] segments, int rowCount, int liveCount,
+                         Map<Long, Integer> directorOrdinals, Map<Long, Integer> categoryOrdinals) {
+            this.segments = segments;
+            this.rowCount = rowCount;
+            this.liveCount = liveCount;
+            this.directorOrdinals = directorOrdinals;
+            this.categoryOrdinals = categoryOrdinals;
+        }
+    }
+
+    /**
+     * Critères d'un filtre traduits en bornes primitives pour un instantané donné.
+     * Une note bornée écarte les notes absentes, comme une comparaison SQL avec NULL.
+     */
+    private static final class Criteria {
+
+        private final int minYear;
+        private final int maxYear;
+        private final boolean ratingBounded;
+        private final double minRating;
+        private final double maxRating;
+        private final int minDuration;
+        private final int maxDuration;
+        private final boolean[] directors;
+        private final boolean[] categories;
+        private final boolean empty;
+
+        private Criteria(FilmFilterDTO filter, Snapshot snapshot) {
+            this.minYear = filter.getMinYear() != null ? filter.getMinYear() : Integer.MIN_VALUE;
+            this.maxYear = filter.getMaxYear() != null ? filter.getMaxYear() : Integer.MAX_VALUE;
+            this.ratingBounded = filter.getMinRating() != null || filter.getMaxRating() != null;
+            this.minRating = filter.getMinRating() != null ? filter.getMinRating() : Double.NEGATIVE_INFINITY;
+            this.maxRating = filter.getMaxRating() != null ? filter.getMaxRating() : Double.POSITIVE_INFINITY;
+            this.minDuration = filter.getMinDuration() != null ? filter.getMinDuration() : Integer.MIN_VALUE;
+            this.maxDuration = filter.getMaxDuration() != null ? filter.getMaxDuration() : Integer.MAX_VALUE;
+            this.directors = wanted(filter.getDirectorIds(), snapshot.directorOrdinals);
+            this.categories = wanted(filter.getCategoryIds(), snapshot.categoryOrdinals);
+            // Aucun identifiant demandé n'est connu : rien à parcourir
+            this.empty = (directors != null && !any(directors)) || (categories != null && !any(categories));
+        }
+
+        private boolean matches(Segment segment, int i) {
+            if (segment.id[i] < 0) {
+                return false;
+            }
+            int year = segment.year[i];
+            if (year < minYear || year > maxYear) {
+                return false;
+            }
+            if (ratingBounded) {
+                double rating = segment.rating[i];
+                if (!(rating >= minRating && rating <= maxRating)) {
+                    return false;
+                }
+            }
+            int duration = segment.duration[i];
+            if (duration < minDuration || duration > maxDuration) {
+                return false;
+            }
+            if (directors != null) {
+                int director = segment.director[i];
+                if (director < 0 || !directors[director]) {
+                    return false;
+                }
+            }
+            if (categories != null) {
+                int category = segment.category[i];
+                return category >= 0 && categories[category];
+            }
+            return true;
+        }
+
+        private static boolean[] wanted(List<Long> ids, Map<Long, Integer> ordinals) {
+            if (ids == null || ids.isEmpty()) {
+                return null;
+            }
+            boolean[] wanted = new boolean[ordinals.size()];
+            for (Long id : ids) {
+                Integer ordinal = ordinals.get(id);
+                if (ordinal != null) {
+                    wanted[ordinal] = true;
+                }
+            }
+            return wanted;
+        }
+
+        private static boolean any(boolean[] values) {
+            for (boolean value : values) {
+                if (value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Position {
+
+        private final double key;
+        private final long id;
+
+        private Position(double key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Ordre de {@link FilmSort} : clé puis identifiant croissant, les valeurs absentes
+     * avant toute valeur en tri croissant (comme NULL sous MySQL et H2)
+     */
+    private static final class RowOrder implements Comparator<Position> {
+
+        private final FilmSort sort;
+        private final boolean descending;
+
+        private RowOrder(FilmSort sort, boolean descending) {
+            this.sort = sort;
+            this.descending = descending;
+        }
+
+        private double key(Segment segment, int i) {
+            switch (sort) {
+                case YEAR:
+                    return segment.year[i];
+                case RATING:
+                    return segment.rating[i];
+                case DURATION:
+                    return segment.duration[i];
+                default:
+                    return 0;
+            }
+        }
+
+        @Override
+        public int compare(Position a, Position b) {
+            return compare(a.key, a.id, b.key, b.id);
+        }
+
+        private int compare(double keyA, long idA, double keyB, long idB) {
+            if (sort == FilmSort.ID) {
+                int byId = Long.compare(idA, idB);
+                return descending ? -byId : byId;
+            }
+            int byKey = compareKeys(keyA, keyB);
+            if (byKey != 0) {
+                return descending ? -byKey : byKey;
+            }
+            return Long.compare(idA, idB);
+        }
+
+        private static int compareKeys(double a, double b) {
+            boolean absentA = Double.isNaN(a);
+            boolean absentB = Double.isNaN(b);
+            if (absentA || absentB) {
+                return absentA == absentB ? 0 : (absentA ? -1 : 1);
+            }
+            return Double.compare(a, b);
+        }
+    }
+}
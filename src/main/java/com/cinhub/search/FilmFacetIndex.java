@@ -0,0 +1,413 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.CategoryDTO;
+import com.cinhub.dto.DirectorDTO;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFacetFilterDTO;
+import com.cinhub.entity.Category;
+import com.cinhub.entity.Director;
+import com.cinhub.event.CategoryChangedEvent;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.DirectorChangedEvent;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.repository.CategoryRepository;
+import com.cinhub.repository.DirectorRepository;
+import com.cinhub.repository.FilmColumnView;
+import com.cinhub.repository.FilmFacet;
+import com.cinhub.repository.FilmFacetCounts;
+import com.cinhub.repository.FilmRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index bitmap des facettes de films : pour chaque valeur de facette (catégorie, décennie,
+ * tranche de note, nationalité du réalisateur), l'ensemble compressé (Roaring) des films
+ * qui la portent. Une requête de facettes se résout par OU des
+ * valeurs cochées d'une facette, ET entre facettes, puis un comptage d'intersection par
+ * valeur, sans matérialiser les films.
+ *
+ * <p>Les bitmaps ne sont pas sûrs en écriture concurrente : les mises à jour (événements
+ * après commit, ordonnés par version comme dans {@link FilmLeaderboard}) prennent le verrou
+ * d'écriture, les requêtes le verrou de lecture. Le changement de nationalité d'un
+ * réalisateur déplace tous ses films d'un bloc, grâce au bitmap par réalisateur.
+ *
+ * <p>Les bitmaps portent des entiers 32 bits : chaque identifiant de film y figure par un
+ * ordinal dense, attribué à sa première apparition et conservé jusqu'à la reconstruction.
+ */
+@Component
+public class FilmFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilmFacetIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final FilmRepository filmRepository;
+    private final DirectorRepository directorRepository;
+    private final CategoryRepository categoryRepository;
+
+    // Protégés par lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<FilmFacet, Map<Object, RoaringBitmap>> facets = new EnumMap<>(FilmFacet.class);
+    private final Map<Long, RoaringBitmap> filmsByDirector = new HashMap<>();
+    private final Map<Long, Object> directorNationalities = new HashMap<>();
+    private final Map<Long, FilmEntry> films = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public FilmFacetIndex(FilmRepository filmRepository,
+                          DirectorRepository directorRepository,
+                          CategoryRepository categoryRepository) {
+        this.filmRepository = filmRepository;
+        this.directorRepository = directorRepository;
+        this.categoryRepository = categoryRepository;
+        for (FilmFacet facet : FilmFacet.values()) {
+            facets.put(facet, new HashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Relit catégories, réalisateurs puis films ; les événements reçus pendant le parcours
+     * sont appliqués normalement et l'emportent s'ils sont plus récents.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        try {
+            lock.writeLock().lock();
+            try {
+                all.clear();
+                facets.values().forEach(Map::clear);
+                filmsByDirector.clear();
+                directorNationalities.clear();
+                films.clear();
+                ordinals.clear();
+                categoryNames.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Long afterId = 0L;
+            List<Category> categories;
+            do {
+                categories = categoryRepository.findPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Category category : categories) {
+                    categoryNames.putIfAbsent(category.getIdCategory(), category.getName());
+                    afterId = category.getIdCategory();
+                }
+            } while (categories.size() == REBUILD_PAGE_SIZE);
+
+            afterId = 0L;
+            List<Director> directors;
+            do {
+                directors = directorRepository.findPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Director director : directors) {
+                        // Une nationalité déjà reçue par événement est plus récente que la relecture
+                        if (!directorNationalities.containsKey(director.getIdDirector())) {
+                            changeNationality(director.getIdDirector(),
+                                    FilmFacet.NATIONALITY.bucketOf(director.getNationality()));
+                        }
+                        afterId = director.getIdDirector();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (directors.size() == REBUILD_PAGE_SIZE);
+
+            afterId = 0L;
+            List<FilmColumnView> page;
+            do {
+                page = filmRepository.findColumnPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (FilmColumnView film : page) {
+                        apply(film.getIdFilm(), new FilmEntry(film.getVersion(), false, film.getIdCategory(),
+                                film.getReleaseYear(), film.getRating(), film.getIdDirector()));
+                        afterId = film.getIdFilm();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            long filmCount;
+            long sizeInBytes;
+            lock.writeLock().lock();
+            try {
+                // Ordinaux attribués dans l'ordre des identifiants : consécutifs, ils se compressent en plages
+                all.runOptimize();
+                filmCount = all.getLongCardinality();
+                facets.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+                filmsByDirector.values().forEach(RoaringBitmap::runOptimize);
+                sizeInBytes = all.getLongSizeInBytes()
+                        + facets.values().stream().flatMap(values -> values.values().stream())
+                        .mapToLong(RoaringBitmap::getLongSizeInBytes).sum()
+                        + filmsByDirector.values().stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Index des facettes de films construit : {} film(s), {} Ko de bitmaps, en {} ms",
+                    filmCount, sizeInBytes / 1024, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Construction de l'index des facettes impossible, repli sur la base", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onFilmChanged(FilmChangedEvent event) {
+        FilmDTO film = event.getFilm();
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ChangeType.DELETED || film == null) {
+                apply(event.getIdFilm(), new FilmEntry(event.getVersion(), true, null, null, null, null));
+                return;
+            }
+            DirectorDTO director = film.getDirector();
+            Long idDirector = director != null ? director.getIdDirector() : null;
+            if (idDirector != null && !directorNationalities.containsKey(idDirector)) {
+                changeNationality(idDirector, FilmFacet.NATIONALITY.bucketOf(director.getNationality()));
+            }
+            apply(event.getIdFilm(), new FilmEntry(event.getVersion(), false,
+                    film.getCategory() != null ? film.getCategory().getIdCategory() : null,
+                    film.getReleaseYear(), film.getRating(), idDirector));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDirectorChanged(DirectorChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ChangeType.DELETED || event.getDirector() == null) {
+                // Un réalisateur n'est supprimable que sans films
+                directorNationalities.remove(event.getIdDirector());
+            } else {
+                changeNationality(event.getIdDirector(),
+                        FilmFacet.NATIONALITY.bucketOf(event.getDirector().getNationality()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        CategoryDTO category = event.getCategory();
+        if (event.getType() == ChangeType.DELETED || category == null) {
+            categoryNames.remove(event.getIdCategory());
+        } else {
+            categoryNames.put(event.getIdCategory(), category.getName());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public String getCategoryName(Long idCategory) {
+        return categoryNames.get(idCategory);
+    }
+
+    /**
+     * Total de la sélection et, pour chaque facette, le nombre de films par valeur sous la
+     * sélection des autres facettes
+     */
+    public FilmFacetCounts count(FilmFacetFilterDTO filter) {
+        lock.readLock().lock();
+        try {
+            Map<FilmFacet, RoaringBitmap> selections = new EnumMap<>(FilmFacet.class);
+            for (FilmFacet facet : FilmFacet.values()) {
+                List<?> selected = facet.selectedIn(filter);
+                if (!selected.isEmpty()) {
+                    Map<Object, RoaringBitmap> values = facets.get(facet);
+                    List<RoaringBitmap> bitmaps = new ArrayList<>(selected.size());
+                    for (Object value : selected) {
+                        RoaringBitmap bitmap = values.get(value);
+                        if (bitmap != null) {
+                            bitmaps.add(bitmap);
+                        }
+                    }
+                    selections.put(facet, FastAggregation.or(bitmaps.iterator()));
+                }
+            }
+
+            FilmFacetCounts counts = new FilmFacetCounts(intersect(selections, null).getLongCardinality());
+            for (FilmFacet facet : FilmFacet.values()) {
+                RoaringBitmap base = intersect(selections, facet);
+                for (Map.Entry<Object, RoaringBitmap> value : facets.get(facet).entrySet()) {
+                    long count = base == all
+                            ? value.getValue().getLongCardinality()
+                            : RoaringBitmap.andCardinality(value.getValue(), base);
+                    if (count > 0) {
+                        counts.add(facet, value.getKey(), count);
+                    }
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Films de toutes les sélections sauf celle de excluded ; sans sélection, le bitmap global lui-même
+    private RoaringBitmap intersect(Map<FilmFacet, RoaringBitmap> selections, FilmFacet excluded) {
+        RoaringBitmap result = all;
+        for (Map.Entry<FilmFacet, RoaringBitmap> selection : selections.entrySet()) {
+            if (selection.getKey() != excluded) {
+                result = RoaringBitmap.and(result, selection.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void apply(long idFilm, FilmEntry next) {
+        FilmEntry current = films.get(idFilm);
+        if (current != null && (current.deleted || (!next.deleted && current.version >= next.version))) {
+            // Suppression déjà connue, ou état déjà appliqué ou plus récent
+            return;
+        }
+        int id = ordinal(idFilm);
+        if (current != null) {
+            unlink(id, current);
+        }
+        link(id, next);
+        films.put(idFilm, next);
+    }
+
+    private int ordinal(long idFilm) {
+        Integer ordinal = ordinals.get(idFilm);
+        if (ordinal == null) {
+            ordinal = ordinals.size();
+            ordinals.put(idFilm, ordinal);
+        }
+        return ordinal;
+    }
+
+    private void link(int id, FilmEntry film) {
+        if (film.deleted) {
+            return;
+        }
+        all.add(id);
+        add(FilmFacet.CATEGORY, film.idCategory, id);
+        add(FilmFacet.DECADE, film.decade, id);
+        add(FilmFacet.RATING, film.ratingBucket, id);
+        if (film.idDirector != null) {
+            filmsByDirector.computeIfAbsent(film.idDirector, d -> new RoaringBitmap()).add(id);
+            add(FilmFacet.NATIONALITY, directorNationalities.get(film.idDirector), id);
+        }
+    }
+
+    private void unlink(int id, FilmEntry film) {
+        if (film.deleted) {
+            return;
+        }
+        all.remove(id);
+        remove(FilmFacet.CATEGORY, film.idCategory, id);
+        remove(FilmFacet.DECADE, film.decade, id);
+        remove(FilmFacet.RATING, film.ratingBucket, id);
+        if (film.idDirector != null) {
+            RoaringBitmap directorFilms = filmsByDirector.get(film.idDirector);
+            if (directorFilms != null) {
+                directorFilms.remove(id);
+                if (directorFilms.isEmpty()) {
+                    filmsByDirector.remove(film.idDirector);
+                }
+            }
+            remove(FilmFacet.NATIONALITY, directorNationalities.get(film.idDirector), id);
+        }
+    }
+
+    private void add(FilmFacet facet, Object value, int id) {
+        if (value != null) {
+            facets.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    // Une valeur sans films disparaît de la facette
+    private void remove(FilmFacet facet, Object value, int id) {
+        if (value == null) {
+            return;
+        }
+        Map<Object, RoaringBitmap> values = facets.get(facet);
+        RoaringBitmap bitmap = values.get(value);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                values.remove(value);
+            }
+        }
+    }
+
+    private void changeNationality(Long idDirector, Object nationality) {
+        Object previous = directorNationalities.put(idDirector, nationality);
+        RoaringBitmap directorFilms = filmsByDirector.get(idDirector);
+        if (Objects.equals(previous, nationality) || directorFilms == null) {
+            return;
+        }
+        Map<Object, RoaringBitmap> values = facets.get(FilmFacet.NATIONALITY);
+        if (previous != null) {
+            RoaringBitmap bitmap = values.get(previous);
+            if (bitmap != null) {
+                bitmap.andNot(directorFilms);
+                if (bitmap.isEmpty()) {
+                    values.remove(previous);
+                }
+            }
+        }
+        if (nationality != null) {
+            values.computeIfAbsent(nationality, v -> new RoaringBitmap()).or(directorFilms);
+        }
+    }
+
+    /**
+     * Valeurs de facettes d'un film telles qu'indexées, pour le retirer à la mise à jour suivante
+     */
+    private static final class FilmEntry {
+
+        private final long version;
+        private final boolean deleted;
+        private final Long idCategory;
+        private final Object decade;
+        private final Object ratingBucket;
+        private final Long idDirector;
+
+        private FilmEntry(long version, boolean deleted, Long idCategory, Integer releaseYear, Double rating,
+                          Long idDirector) {
+            this.version = version;
+            this.deleted = deleted;
+            this.idCategory = idCategory;
+            this.decade = FilmFacet.DECADE.bucketOf(releaseYear);
+            this.ratingBucket = FilmFacet.RATING.bucketOf(rating);
+            this.idDirector = idDirector;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmRankingDTO;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.repository.FilmRatingView;
+import com.cinhub.repository.FilmRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Classements des films par note (global et par catégorie), construits au démarrage puis
+ * tenus à jour après chaque écriture validée. Un palmarès se lit en parcourant les
+ * {@code limit} premiers éléments d'un ensemble trié, sans requête.
+ *
+ * <p>Chaque film a une position courante ; sa mise à jour (retrait de l'ancienne entrée,
+ * insertion de la nouvelle) est atomique par film. Les événements portent la version de
+ * l'entité : un événement qui n'est pas plus récent que la position connue est ignoré, quel que soit
+ * l'ordre de livraison des commits concurrents. Une suppression est définitive (les
+ * identifiants ne sont pas réutilisés). Une lecture concurrente d'une mise à jour peut
+ * manquer brièvement le film concerné, jamais le voir deux fois.
+ */
+@Component
+public class FilmLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilmLeaderboard.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // Note décroissante, puis identifiant croissant pour départager
+    private static final Comparator<Position> ORDER = Comparator.comparingDouble((Position p) -> p.rating).reversed()
+            .thenComparingLong(p -> p.idFilm);
+
+    private final FilmRepository filmRepository;
+    private final ConcurrentHashMap<Long, Position> positions = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Position> global = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentHashMap<Long, ConcurrentSkipListSet<Position>> byCategory = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public FilmLeaderboard(FilmRepository filmRepository) {
+        this.filmRepository = filmRepository;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Relit toutes les notes ; les événements reçus pendant le parcours sont appliqués
+     * normalement et l'emportent s'ils sont plus récents.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        try {
+            positions.clear();
+            global.clear();
+            byCategory.clear();
+            Long afterId = 0L;
+            List<FilmRatingView> page;
+            do {
+                page = filmRepository.findRatingPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (FilmRatingView film : page) {
+                    apply(new Position(film.getIdFilm(), film.getRating(), film.getIdCategory(),
+                            film.getTitle(), film.getReleaseYear(), film.getVersion(), false));
+                    afterId = film.getIdFilm();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            ready = true;
+            logger.info("Classements des films construits : {} film(s) noté(s), {} catégorie(s) en {} ms",
+                    global.size(), byCategory.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Construction des classements des films impossible, repli sur la base", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onFilmChanged(FilmChangedEvent event) {
+        FilmDTO film = event.getFilm();
+        if (event.getType() == ChangeType.DELETED || film == null) {
+            apply(new Position(event.getIdFilm(), null, null, null, null, event.getVersion(), true));
+        } else {
+            apply(new Position(event.getIdFilm(), film.getRating(),
+                    film.getCategory() != null ? film.getCategory().getIdCategory() : null,
+                    film.getTitle(), film.getReleaseYear(), event.getVersion(), false));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Les {@code limit} films les mieux notés, de toutes catégories si {@code categoryId} est nul
+     */
+    public List<FilmRankingDTO> top(Long categoryId, int limit) {
+        ConcurrentSkipListSet<Position> ranking = categoryId == null ? global : byCategory.get(categoryId);
+        if (ranking == null) {
+            return Collections.emptyList();
+        }
+        List<FilmRankingDTO> top = new ArrayList<>(limit);
+        Iterator<Position> iterator = ranking.iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            Position position = iterator.next();
+            top.add(new FilmRankingDTO(top.size() + 1, position.idFilm, position.title, position.releaseYear,
+                    position.rating, position.idCategory));
+        }
+        return top;
+    }
+
+    private void apply(Position next) {
+        positions.compute(next.idFilm, (id, current) -> {
+            if (current != null && (current.deleted || (!next.deleted && current.version >= next.version))) {
+                // Suppression déjà connue, ou état déjà appliqué ou plus récent
+                return current;
+            }
+            if (current != null) {
+                unlink(current);
+            }
+            link(next);
+            return next;
+        });
+    }
+
+    private void link(Position position) {
+        if (position.deleted || position.rating == null) {
+            return;
+        }
+        global.add(position);
+        if (position.idCategory != null) {
+            byCategory.computeIfAbsent(position.idCategory, c -> new ConcurrentSkipListSet<>(ORDER)).add(position);
+        }
+    }
+
+    private void unlink(Position position) {
+        if (position.deleted || position.rating == null) {
+            return;
+        }
+        global.remove(position);
+        if (position.idCategory != null) {
+            ConcurrentSkipListSet<Position> ranking = byCategory.get(position.idCategory);
+            if (ranking != null) {
+                ranking.remove(position);
+            }
+        }
+    }
+
+    /**
+     * Position d'un film : immuable, remplacée à chaque mise à jour
+     */
+    private static final class Position {
+
+        private final long idFilm;
+        private final Double rating;
+        private final Long idCategory;
+        private final String title;
+        private final Integer releaseYear;
+        private final long version;
+        private final boolean deleted;
+
+        private Position(long idFilm, Double rating, Long idCategory, String title, Integer releaseYear,
+                         long version, boolean deleted) {
+            this.idFilm = idFilm;
+            this.rating = rating;
+            this.idCategory = idCategory;
+            this.title = title;
+            this.releaseYear = releaseYear;
+            this.version = version;
+            this.deleted = deleted;
+        }
+    }
+}
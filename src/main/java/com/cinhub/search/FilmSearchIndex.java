@@ -0,0 +1,110 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.FilmTextView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Index en mémoire des titres et synopsis de films, construit au démarrage puis
+ * tenu à jour après chaque écriture validée de FilmService. La recherche par titre ne
+ * note que les titres ; les synopsis, indexés sur option, ne servent qu'à la recherche
+ * plein texte.
+ */
+@Component
+public class FilmSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilmSearchIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double SYNOPSIS_WEIGHT = 1.0;
+
+    private final FilmRepository filmRepository;
+    private final boolean indexSynopsis;
+    private final NgramIndex index = new NgramIndex(2);
+    private volatile boolean ready;
+
+    public FilmSearchIndex(FilmRepository filmRepository,
+                           @Value("${cinhub.search.index-synopsis:false}") boolean indexSynopsis) {
+        this.filmRepository = filmRepository;
+        this.indexSynopsis = indexSynopsis;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        try {
+            index.clear();
+            Long afterId = 0L;
+            List<FilmTextView> page;
+            do {
+                page = filmRepository.findTextPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (FilmTextView film : page) {
+                    index.index(film.getIdFilm(), film.getTitle(), indexSynopsis ? film.getSynopsis() : null);
+                    afterId = film.getIdFilm();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            ready = true;
+            logger.info("Index de recherche des films construit : {} film(s) en {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Construction de l'index de recherche des films impossible, repli sur la base", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onFilmChanged(FilmChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            index.remove(event.getIdFilm());
+        } else {
+            FilmDTO film = event.getFilm();
+            index.index(film.getIdFilm(), film.getTitle(), indexSynopsis ? film.getSynopsis() : null);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indique si les synopsis sont indexés en plus des titres (cinhub.search.index-synopsis)
+     */
+    public boolean isIndexingSynopsis() {
+        return indexSynopsis;
+    }
+
+    /**
+     * Indique si la requête contient au moins un trigramme, seul cas où l'index évite
+     * de parcourir tous les films
+     */
+    public boolean isSelective(String query) {
+        return NgramIndex.isSelective(query);
+    }
+
+    public List<Long> searchTitles(String query, int limit) {
+        return index.search(query, limit, TITLE_WEIGHT, 0);
+    }
+
+    public List<Long> searchText(String query, int limit) {
+        return index.search(query, limit, TITLE_WEIGHT, SYNOPSIS_WEIGHT);
+    }
+}
@@ -0,0 +1,286 @@
+package com.cinhub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé de trigrammes sur un ou plusieurs champs texte par document.
+ *
+ * <p>Chaque (ré)indexation attribue un nouvel ordinal au document ; les listes de
+ * postings ne font qu'ajouter des ordinaux, les anciens étant simplement marqués
+ * comme supprimés puis purgés par compaction. Une recherche parcourt la liste du
+ * trigramme le plus rare de la requête et vérifie chaque candidat par inclusion
+ * exacte du texte normalisé, ce qui conserve la sémantique d'un {@code LIKE '%q%'}.
+ */
+public class NgramIndex {
+
+    private static final int GRAM = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_STALE_BEFORE_COMPACTION = 10_000;
+
+    private final int fieldCount;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, IntList> postings = new HashMap<>();
+    private Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[][] fields = new String[INITIAL_CAPACITY][];
+    private int[] gramCounts = new int[INITIAL_CAPACITY];
+    private int nextOrdinal;
+    private long postingEntries;
+    private long staleEntries;
+
+    public NgramIndex(int fieldCount) {
+        this.fieldCount = fieldCount;
+    }
+
+    public void index(long id, String... rawFields) {
+        String[] normalized = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            normalized[i] = i < rawFields.length ? TextNormalizer.normalize(rawFields[i]) : "";
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            addInternal(id, normalized);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vrai si la requête normalisée contient au moins un trigramme : sinon {@link #search}
+     * vérifie tous les documents
+     */
+    public static boolean isSelective(String query) {
+        return TextNormalizer.normalize(query).length() >= GRAM;
+    }
+
+    /**
+     * Renvoie au plus {@code limit} identifiants dont un champ de poids non nul contient
+     * la requête, triés par pertinence décroissante.
+     *
+     * @param weights poids de chaque champ ; un poids nul exclut le champ de la recherche
+     */
+    public List<Long> search(String query, int limit, double... weights) {
+        String q = TextNormalizer.normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        PriorityQueue<ScoredDocument> top = new PriorityQueue<>(limit + 1);
+        lock.readLock().lock();
+        try {
+            if (q.length() < GRAM) {
+                for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                    collect(top, limit, ordinal, q, weights);
+                }
+            } else {
+                IntList candidates = rarestPosting(q);
+                if (candidates == null) {
+                    return Collections.emptyList();
+                }
+                for (int i = 0; i < candidates.size; i++) {
+                    collect(top, limit, candidates.values[i], q, weights);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ScoredDocument> ranked = new ArrayList<>(top);
+        Collections.sort(ranked, Collections.reverseOrder());
+        List<Long> result = new ArrayList<>(ranked.size());
+        for (ScoredDocument document : ranked) {
+            result.add(document.id);
+        }
+        return result;
+    }
+
+    private IntList rarestPosting(String q) {
+        IntList rarest = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            IntList posting = postings.get(q.substring(i, i + GRAM));
+            if (posting == null) {
+                return null;
+            }
+            if (rarest == null || posting.size < rarest.size) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    private void collect(PriorityQueue<ScoredDocument> top, int limit, int ordinal, String q, double[] weights) {
+        String[] documentFields = fields[ordinal];
+        if (documentFields == null) {
+            return;
+        }
+        double score = score(documentFields, q, weights);
+        if (score <= 0) {
+            return;
+        }
+        ScoredDocument document = new ScoredDocument(ids[ordinal], score);
+        if (top.size() < limit) {
+            top.add(document);
+        } else if (document.compareTo(top.peek()) > 0) {
+            top.poll();
+            top.add(document);
+        }
+    }
+
+    private double score(String[] documentFields, String q, double[] weights) {
+        double score = 0;
+        for (int i = 0; i < fieldCount && i < weights.length; i++) {
+            String field = documentFields[i];
+            int position = weights[i] > 0 ? field.indexOf(q) : -1;
+            if (position < 0) {
+                continue;
+            }
+            double fieldScore = 1 + (double) q.length() / field.length();
+            if (position == 0) {
+                fieldScore += field.length() == q.length() ? 4 : 2;
+            } else if (field.charAt(position - 1) == ' ') {
+                fieldScore += 1;
+            }
+            score += weights[i] * fieldScore;
+        }
+        return score;
+    }
+
+    private void addInternal(long id, String[] normalized) {
+        int ordinal = nextOrdinal++;
+        ensureCapacity(ordinal + 1);
+
+        Set<String> grams = new HashSet<>();
+        for (String field : normalized) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                grams.add(field.substring(i, i + GRAM));
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new IntList()).add(ordinal);
+        }
+
+        ids[ordinal] = id;
+        fields[ordinal] = normalized;
+        gramCounts[ordinal] = grams.size();
+        ordinalById.put(id, ordinal);
+        postingEntries += grams.size();
+    }
+
+    private void removeInternal(long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal != null) {
+            fields[ordinal] = null;
+            staleEntries += gramCounts[ordinal];
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (staleEntries < MIN_STALE_BEFORE_COMPACTION || staleEntries * 2 < postingEntries) {
+            return;
+        }
+        long[] liveIds = new long[ordinalById.size()];
+        String[][] liveFields = new String[ordinalById.size()][];
+        int count = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (fields[ordinal] != null) {
+                liveIds[count] = ids[ordinal];
+                liveFields[count++] = fields[ordinal];
+            }
+        }
+        reset();
+        for (int i = 0; i < count; i++) {
+            addInternal(liveIds[i], liveFields[i]);
+        }
+    }
+
+    private void reset() {
+        postings = new HashMap<>();
+        ordinalById = new HashMap<>();
+        ids = new long[INITIAL_CAPACITY];
+        fields = new String[INITIAL_CAPACITY][];
+        gramCounts = new int[INITIAL_CAPACITY];
+        nextOrdinal = 0;
+        postingEntries = 0;
+        staleEntries = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        fields = Arrays.copyOf(fields, newCapacity);
+        gramCounts = Arrays.copyOf(gramCounts, newCapacity);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class ScoredDocument implements Comparable<ScoredDocument> {
+        private final long id;
+        private final double score;
+
+        private ScoredDocument(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        // Meilleur score d'abord, puis identifiant le plus ancien
+        @Override
+        public int compareTo(ScoredDocument other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(other.id, id);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinhub.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation commune au texte indexé et aux requêtes :
+ * suppression des accents, minuscules, ponctuation remplacée par des espaces.
+ */
+public class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        return SEPARATORS.matcher(fold(text)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Accents et casse seulement, ponctuation conservée : l'égalité obtenue est celle
+     * d'une collation insensible aux accents et à la casse (utf8mb4_0900_ai_ci)
+     */
+    public static String fold(String text) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+}
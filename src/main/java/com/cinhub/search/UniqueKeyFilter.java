@@ -0,0 +1,281 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.CategoryDTO;
+import com.cinhub.dto.DirectorDTO;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.entity.Category;
+import com.cinhub.entity.Director;
+import com.cinhub.event.CategoryChangedEvent;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.DirectorChangedEvent;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.repository.CategoryRepository;
+import com.cinhub.repository.DirectorRepository;
+import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.FilmTitleView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Préfiltres en mémoire des contrôles d'unicité (titre de film, nom complet de réalisateur,
+ * nom de catégorie). Un filtre de Bloom par domaine répond « absent à coup sûr » pour la
+ * quasi-totalité des nouvelles valeurs : la requête {@code existsBy*} n'est alors pas émise.
+ * Une réponse « peut-être présent » retombe sur la base, et la contrainte d'unicité de la
+ * base reste la garde finale (écritures d'autres instances, courses entre transactions).
+ *
+ * <p>Les clés sont normalisées par {@link TextNormalizer}, au moins aussi tolérant que la
+ * collation insensible à la casse et aux accents de MySQL : deux valeurs égales pour la
+ * base ont toujours la même clé. Une valeur est ajoutée avant son insertion puis de nouveau
+ * après validation ; une suppression ou un renommage laissent l'ancienne clé, qui ne coûte
+ * qu'un faux positif jusqu'à la prochaine reconstruction (déclenchée à saturation).
+ */
+@Component
+public class UniqueKeyFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueKeyFilter.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final FilmRepository filmRepository;
+    private final DirectorRepository directorRepository;
+    private final CategoryRepository categoryRepository;
+    private final boolean enabled;
+    private final long minCapacity;
+    private final double falsePositiveRate;
+    private final KeySpace filmTitles;
+    private final KeySpace directorNames;
+    private final KeySpace categoryNames;
+
+    public UniqueKeyFilter(FilmRepository filmRepository,
+                           DirectorRepository directorRepository,
+                           CategoryRepository categoryRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${cinhub.unique-key-filter.enabled:true}") boolean enabled,
+                           @Value("${cinhub.unique-key-filter.min-capacity:100000}") long minCapacity,
+                           @Value("${cinhub.unique-key-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.filmRepository = filmRepository;
+        this.directorRepository = directorRepository;
+        this.categoryRepository = categoryRepository;
+        this.enabled = enabled;
+        this.minCapacity = minCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filmTitles = new KeySpace("film-title", filmRepository::count, this::scanFilmTitles, meterRegistry);
+        this.directorNames = new KeySpace("director-name", directorRepository::count, this::scanDirectorNames, meterRegistry);
+        this.categoryNames = new KeySpace("category-name", categoryRepository::count, this::scanCategoryNames, meterRegistry);
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (enabled && event.getApplicationContext().getParent() == null) {
+            rebuild(filmTitles);
+            rebuild(directorNames);
+            rebuild(categoryNames);
+        }
+    }
+
+    public boolean mightContainFilmTitle(String title) {
+        return filmTitles.mightContain(filmTitleKey(title));
+    }
+
+    public void addFilmTitle(String title) {
+        add(filmTitles, filmTitleKey(title));
+    }
+
+    public boolean mightContainDirectorName(String firstName, String lastName) {
+        return directorNames.mightContain(directorNameKey(firstName, lastName));
+    }
+
+    public void addDirectorName(String firstName, String lastName) {
+        add(directorNames, directorNameKey(firstName, lastName));
+    }
+
+    public boolean mightContainCategoryName(String name) {
+        return categoryNames.mightContain(categoryNameKey(name));
+    }
+
+    public void addCategoryName(String name) {
+        add(categoryNames, categoryNameKey(name));
+    }
+
+    // Ajout après validation : couvre une reconstruction ayant lu la base avant l'insertion
+    @TransactionalEventListener
+    public void onFilmChanged(FilmChangedEvent event) {
+        FilmDTO film = event.getFilm();
+        if (event.getType() != ChangeType.DELETED && film != null) {
+            addFilmTitle(film.getTitle());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDirectorChanged(DirectorChangedEvent event) {
+        DirectorDTO director = event.getDirector();
+        if (event.getType() != ChangeType.DELETED && director != null) {
+            addDirectorName(director.getFirstName(), director.getLastName());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        CategoryDTO category = event.getCategory();
+        if (event.getType() != ChangeType.DELETED && category != null) {
+            addCategoryName(category.getName());
+        }
+    }
+
+    private void add(KeySpace space, String key) {
+        if (!enabled) {
+            return;
+        }
+        space.add(key);
+        BloomFilter filter = space.active;
+        if (filter != null && filter.getInsertions() > filter.getExpectedInsertions()
+                && space.rebuilding.compareAndSet(false, true)) {
+            // Filtre saturé : reconstruction hors du thread de la requête, l'ancien filtre reste servi
+            CompletableFuture.runAsync(() -> rebuild(space));
+        }
+    }
+
+    private void rebuild(KeySpace space) {
+        long start = System.currentTimeMillis();
+        space.rebuilding.set(true);
+        try {
+            long rows = space.rowCount.getAsLong();
+            BloomFilter next = new BloomFilter(Math.max(minCapacity, 2 * rows), falsePositiveRate);
+            // Les ajouts concurrents alimentent aussi le nouveau filtre pendant le parcours
+            space.building = next;
+            space.scanner.accept(next::put);
+            space.active = next;
+            space.building = null;
+            logger.info("Préfiltre d'unicité {} construit : {} clé(s), {} Ko, en {} ms", space.name,
+                    next.getInsertions(), next.getSizeInBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            space.building = null;
+            logger.error("Construction du préfiltre d'unicité {} impossible, contrôles en base", space.name, e);
+        } finally {
+            space.rebuilding.set(false);
+        }
+    }
+
+    private void scanFilmTitles(Consumer<String> sink) {
+        Long afterId = 0L;
+        List<FilmTitleView> page;
+        do {
+            page = filmRepository.findTitlePage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (FilmTitleView film : page) {
+                sink.accept(filmTitleKey(film.getTitle()));
+                afterId = film.getIdFilm();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    private void scanDirectorNames(Consumer<String> sink) {
+        Long afterId = 0L;
+        List<Director> page;
+        do {
+            page = directorRepository.findPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Director director : page) {
+                sink.accept(directorNameKey(director.getFirstName(), director.getLastName()));
+                afterId = director.getIdDirector();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    private void scanCategoryNames(Consumer<String> sink) {
+        Long afterId = 0L;
+        List<Category> page;
+        do {
+            page = categoryRepository.findPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Category category : page) {
+                sink.accept(categoryNameKey(category.getName()));
+                afterId = category.getIdCategory();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    private static String filmTitleKey(String title) {
+        return TextNormalizer.normalize(title);
+    }
+
+    // La normalisation ne laisse que lettres, chiffres et espaces : « | » sépare sans ambiguïté
+    private static String directorNameKey(String firstName, String lastName) {
+        return TextNormalizer.normalize(firstName) + "|" + TextNormalizer.normalize(lastName);
+    }
+
+    private static String categoryNameKey(String name) {
+        return TextNormalizer.normalize(name);
+    }
+
+    /**
+     * Filtre d'un domaine d'unicité. {@code active} est nul tant que la première construction
+     * n'est pas terminée : toutes les vérifications passent alors par la base.
+     */
+    private static final class KeySpace {
+
+        private final String name;
+        private final LongSupplier rowCount;
+        private final Consumer<Consumer<String>> scanner;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+        private final Counter absent;
+        private final Counter maybePresent;
+        private volatile BloomFilter active;
+        private volatile BloomFilter building;
+
+        private KeySpace(String name, LongSupplier rowCount, Consumer<Consumer<String>> scanner,
+                         MeterRegistry meterRegistry) {
+            this.name = name;
+            this.rowCount = rowCount;
+            this.scanner = scanner;
+            this.absent = Counter.builder("cinhub.unique_key_filter.lookups")
+                    .description("Contrôles d'unicité tranchés par le préfiltre (absent) ou renvoyés à la base")
+                    .tag("domain", name).tag("result", "absent")
+                    .register(meterRegistry);
+            this.maybePresent = Counter.builder("cinhub.unique_key_filter.lookups")
+                    .description("Contrôles d'unicité tranchés par le préfiltre (absent) ou renvoyés à la base")
+                    .tag("domain", name).tag("result", "maybe-present")
+                    .register(meterRegistry);
+            Gauge.builder("cinhub.unique_key_filter.false_positive_rate", this,
+                            space -> space.active != null ? space.active.getExpectedFalsePositiveRate() : 1.0)
+                    .description("Taux de faux positifs attendu au remplissage actuel du préfiltre")
+                    .tag("domain", name)
+                    .register(meterRegistry);
+        }
+
+        private boolean mightContain(String key) {
+            BloomFilter filter = active;
+            if (filter == null) {
+                return true;
+            }
+            boolean result = filter.mightContain(key);
+            (result ? maybePresent : absent).increment();
+            return result;
+        }
+
+        // Lecture de building avant active : une clé ne peut pas manquer au filtre publié
+        // par une reconstruction qui se termine entre les deux lectures
+        private void add(String key) {
+            BloomFilter next = building;
+            BloomFilter filter = active;
+            if (next != null) {
+                next.put(key);
+            }
+            if (filter != null && filter != next) {
+                filter.put(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.cinhub.server;
+
+import com.cinhub.config.WebAppInitializer;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.SpringServletContainerInitializer;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tomcat embarqué démarrant l'application par {@link WebAppInitializer}, comme le ferait
+ * un Tomcat autonome avec le WAR, derrière un connecteur NIO réglé par les propriétés
+ * {@code server.*}.
+ *
+ * <p>L'arrêt est progressif : le connecteur cesse d'accepter des connexions, les
+ * connexions keep-alive sont fermées après leur requête en cours, puis l'arrêt attend
+ * que les requêtes en cours (synchrones ou asynchrones) soient terminées, au plus
+ * {@code server.shutdown.grace-period} ms, avant de fermer les contextes Spring.
+ * Les répertoires temporaires de Tomcat sont supprimés à l'arrêt.
+ */
+public class EmbeddedServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedServer.class);
+
+    private static final long DRAIN_POLL_MILLIS = 50;
+
+    private final Tomcat tomcat = new Tomcat();
+    private final StandardThreadExecutor executor = new StandardThreadExecutor();
+    private final Connector connector = new Connector(Http11NioProtocol.class.getName());
+    private final Context context;
+    private final Path baseDir;
+    private final Path docBase;
+    private final long gracePeriodMillis;
+    private final boolean http2Enabled;
+
+    public EmbeddedServer(Environment env) {
+        this.gracePeriodMillis = env.getProperty("server.shutdown.grace-period", Long.class, 30000L);
+        this.http2Enabled = env.getProperty("server.http2.enabled", Boolean.class, false);
+
+        baseDir = createTempDirectory("cinehub-tomcat");
+        docBase = createTempDirectory("cinehub-docbase");
+        tomcat.setBaseDir(baseDir.toString());
+
+        executor.setName("cinehub-http");
+        executor.setNamePrefix("http-nio-");
+        executor.setMaxThreads(env.getProperty("server.tomcat.threads.max", Integer.class, 200));
+        executor.setMinSpareThreads(env.getProperty("server.tomcat.threads.min-spare", Integer.class, 10));
+        tomcat.getService().addExecutor(executor);
+
+        connector.setPort(env.getProperty("server.port", Integer.class, 8080));
+        Http11NioProtocol protocol = (Http11NioProtocol) connector.getProtocolHandler();
+        protocol.setExecutor(executor);
+        // Tomcat 9 n'a qu'un thread accepteur : accept-count est la file d'attente du socket d'écoute
+        protocol.setAcceptCount(env.getProperty("server.tomcat.accept-count", Integer.class, 100));
+        protocol.setMaxConnections(env.getProperty("server.tomcat.max-connections", Integer.class, 8192));
+        protocol.setConnectionTimeout(env.getProperty("server.tomcat.connection-timeout", Integer.class, 20000));
+        protocol.setKeepAliveTimeout(env.getProperty("server.tomcat.keep-alive-timeout", Integer.class, 20000));
+        protocol.setMaxKeepAliveRequests(env.getProperty("server.tomcat.max-keep-alive-requests", Integer.class, 100));
+        String address = env.getProperty("server.address");
+        if (address != null && !address.isBlank()) {
+            try {
+                protocol.setAddress(InetAddress.getByName(address.trim()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Adresse d'écoute invalide : " + address, e);
+            }
+        }
+        if (http2Enabled) {
+            // h2c par mise à niveau depuis HTTP/1.1 (pas de TLS sur ce connecteur)
+            connector.addUpgradeProtocol(new Http2Protocol());
+        }
+        tomcat.setConnector(connector);
+
+        String contextPath = env.getProperty("server.servlet.context-path", "");
+        context = tomcat.addContext(contextPath, docBase.toString());
+        context.addServletContainerInitializer(new SpringServletContainerInitializer(),
+                Set.of(WebAppInitializer.class));
+    }
+
+    /**
+     * Démarre Tomcat ; échoue si le connecteur ou l'application (contexte Spring racine
+     * compris) n'a pas démarré, après avoir tout arrêté
+     */
+    public void start() throws LifecycleException {
+        tomcat.start();
+        String failure = null;
+        if (!connector.getState().isAvailable()) {
+            failure = "Le connecteur HTTP n'a pas démarré sur le port " + connector.getPort();
+        } else if (!context.getState().isAvailable()
+                || WebApplicationContextUtils.getWebApplicationContext(context.getServletContext()) == null) {
+            failure = "L'application n'a pas démarré (contexte " + context.getName() + ")";
+        }
+        if (failure == null) {
+            return;
+        }
+        tomcat.stop();
+        tomcat.destroy();
+        deleteTempDirectories();
+        throw new IllegalStateException(failure);
+    }
+
+    /**
+     * Bloque le thread appelant jusqu'à l'arrêt du serveur
+     */
+    public void await() {
+        tomcat.getServer().await();
+    }
+
+    /**
+     * Arrêt progressif : refus des nouvelles connexions, attente des requêtes en cours
+     * dans la limite du délai de grâce, puis arrêt de Tomcat et des contextes Spring
+     */
+    public void stop() {
+        long start = System.currentTimeMillis();
+        try {
+            connector.pause();
+            connector.getProtocolHandler().closeServerSocketGraceful();
+            long deadline = start + gracePeriodMillis;
+            long inFlight = inFlightRequests();
+            if (inFlight > 0) {
+                logger.info("Arrêt : attente de {} requête(s) en cours (au plus {} ms)", inFlight, gracePeriodMillis);
+            }
+            while (inFlight > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(DRAIN_POLL_MILLIS);
+                inFlight = inFlightRequests();
+            }
+            if (inFlight > 0) {
+                logger.warn("Délai de grâce écoulé : {} requête(s) interrompue(s)", inFlight);
+            }
+            tomcat.stop();
+            tomcat.destroy();
+            deleteTempDirectories();
+            logger.info("Serveur arrêté en {} ms", System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (LifecycleException e) {
+            logger.error("Arrêt du serveur incomplet", e);
+        }
+    }
+
+    public int getPort() {
+        return connector.getLocalPort();
+    }
+
+    public String getContextPath() {
+        return context.getPath();
+    }
+
+    /**
+     * Résumé des réglages effectifs du connecteur, pour le journal de démarrage
+     */
+    public String describeConnector() {
+        Http11NioProtocol protocol = (Http11NioProtocol) connector.getProtocolHandler();
+        return String.format("NIO, %d à %d threads, %d connexions max, file d'attente %d, "
+                        + "keep-alive %d ms / %d requêtes, HTTP/2 %s",
+                executor.getMinSpareThreads(), executor.getMaxThreads(), protocol.getMaxConnections(),
+                protocol.getAcceptCount(), protocol.getKeepAliveTimeout(), protocol.getMaxKeepAliveRequests(),
+                http2Enabled ? "activé (h2c)" : "désactivé");
+    }
+
+    private long inFlightRequests() {
+        long async = context instanceof StandardContext ? ((StandardContext) context).getInProgressAsyncCount() : 0;
+        return executor.getActiveCount() + async;
+    }
+
+    private void deleteTempDirectories() {
+        for (Path directory : List.of(baseDir, docBase)) {
+            try {
+                FileSystemUtils.deleteRecursively(directory);
+            } catch (IOException e) {
+                logger.warn("Répertoire temporaire {} non supprimé : {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    private static Path createTempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
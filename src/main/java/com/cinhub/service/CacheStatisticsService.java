@@ -0,0 +1,91 @@
+package com.cinhub.service;
+
+import com.cinhub.cache.FilmResponseCache;
+import com.cinhub.dto.CacheRegionStatsDTO;
+import com.cinhub.dto.CacheStatsDTO;
+import com.cinhub.dto.ResponseCacheStatsDTO;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@Lazy
+public class CacheStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatisticsService.class);
+
+    private final SessionFactory sessionFactory;
+    private final FilmResponseCache filmResponseCache;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory, FilmResponseCache filmResponseCache) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.filmResponseCache = filmResponseCache;
+    }
+
+    public CacheStatsDTO getCacheStatistics() {
+        logger.info("Récupération des statistiques du cache de second niveau");
+        Statistics statistics = sessionFactory.getStatistics();
+
+        List<CacheRegionStatsDTO> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDTO(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return CacheStatsDTO.builder()
+                .secondLevelCacheEnabled(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled())
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .secondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount())
+                .secondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount())
+                .queryCacheHitCount(statistics.getQueryCacheHitCount())
+                .queryCacheMissCount(statistics.getQueryCacheMissCount())
+                .regions(regions)
+                .responseCache(getResponseCacheStatistics())
+                .build();
+    }
+
+    public void clearResponseCache() {
+        logger.info("Vidage du cache de réponses des films");
+        filmResponseCache.invalidateAll();
+    }
+
+    private ResponseCacheStatsDTO getResponseCacheStatistics() {
+        CacheStats stats = filmResponseCache.getStats();
+        return ResponseCacheStatsDTO.builder()
+                .enabled(filmResponseCache.isEnabled())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .entryCount(filmResponseCache.getEntryCount())
+                .weightBytes(filmResponseCache.getWeightBytes())
+                .maxWeightBytes(filmResponseCache.getMaxWeightBytes())
+                .build();
+    }
+
+    private CacheRegionStatsDTO toDTO(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return null;
+        }
+        // Long.MIN_VALUE : le fournisseur JCache n'expose pas le nombre d'éléments
+        long elementCount = regionStatistics.getElementCountInMemory();
+        return CacheRegionStatsDTO.builder()
+                .region(region)
+                .hitCount(regionStatistics.getHitCount())
+                .missCount(regionStatistics.getMissCount())
+                .putCount(regionStatistics.getPutCount())
+                .elementCount(elementCount >= 0 ? elementCount : null)
+                .build();
+    }
+}
@@ -1,22 +1,39 @@
 package com.cinhub.service;
 
+import com.cinhub.config.PaginationProperties;
 import com.cinhub.dto.CategoryCreateDTO;
 import com.cinhub.dto.CategoryDTO;
 import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.PageResponse;
 import com.cinhub.entity.Category;
+import com.cinhub.event.CategoryChangedEvent;
+import com.cinhub.event.ChangeType;
 import com.cinhub.exception.BusinessRuleException;
 import com.cinhub.exception.ResourceNotFoundException;
 import com.cinhub.exception.ValidationException;
 import com.cinhub.mapper.CategoryMapper;
-import com.cinhub.mapper.FilmMapper;
 import com.cinhub.repository.CategoryRepository;
 import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.TableVersionView;
+import com.cinhub.repository.VersionView;
+import com.cinhub.search.CategorySearchIndex;
+import com.cinhub.search.UniqueKeyFilter;
+import com.cinhub.util.CursorUtils;
+import com.cinhub.util.DuplicateKeyUtils;
+import com.cinhub.util.ResourceVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,47 +45,79 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final FilmRepository filmRepository;
     private final CategoryMapper categoryMapper;
-    private final FilmMapper filmMapper;
+    private final PaginationProperties paginationProperties;
+    private final CategorySearchIndex categorySearchIndex;
+    private final UniqueKeyFilter uniqueKeyFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CategoryService(CategoryRepository categoryRepository,
                            FilmRepository filmRepository,
                            CategoryMapper categoryMapper,
-                           FilmMapper filmMapper) {
+                           PaginationProperties paginationProperties,
+                           CategorySearchIndex categorySearchIndex,
+                           UniqueKeyFilter uniqueKeyFilter,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.filmRepository = filmRepository;
         this.categoryMapper = categoryMapper;
-        this.filmMapper = filmMapper;
+        this.paginationProperties = paginationProperties;
+        this.categorySearchIndex = categorySearchIndex;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.eventPublisher = eventPublisher;
     }
 
     public CategoryDTO createCategory(CategoryCreateDTO createDTO) {
         logger.info("Création d'une nouvelle catégorie : {}", createDTO.getName());
 
-        // Vérifier que la catégorie n'existe pas déjà
-        if (categoryRepository.existsByName(createDTO.getName())) {
+        // Vérifier que la catégorie n'existe pas déjà (pas de requête si le préfiltre l'exclut)
+        if (uniqueKeyFilter.mightContainCategoryName(createDTO.getName()) &&
+                categoryRepository.existsByName(createDTO.getName())) {
             throw new ValidationException("Une catégorie avec ce nom existe déjà");
         }
 
         Category category = categoryMapper.toEntity(createDTO);
-        Category savedCategory = categoryRepository.save(category);
+        Category savedCategory = saveCategory(category);
 
         logger.info("Catégorie créée avec succès : ID = {}", savedCategory.getIdCategory());
-        return categoryMapper.toDTO(savedCategory);
+        CategoryDTO categoryDTO = categoryMapper.toDTO(savedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, savedCategory.getIdCategory(), categoryDTO));
+        return categoryDTO;
     }
 
     @Transactional(readOnly = true)
     public CategoryDTO getCategoryById(Long id) {
         logger.info("Récupération de la catégorie avec l'ID : {}", id);
-        Category category = categoryRepository.findById(id)
+        return categoryRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", id));
-        return categoryMapper.toDTO(category);
     }
 
     @Transactional(readOnly = true)
-    public List<CategoryDTO> getAllCategories() {
-        logger.info("Récupération de toutes les catégories");
-        return categoryRepository.findAll().stream()
-                .map(categoryMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResourceVersion getCategoryVersion(Long id) {
+        VersionView version = categoryRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", id));
+        return ResourceVersion.of("category-" + id + "-" + version.getVersion(), version.getUpdatedAt());
+    }
+
+    /**
+     * Empreinte de toute la table des catégories (nombre, somme des versions, plus grand id) :
+     * elle change à chaque création, modification ou suppression, quelle que soit la page demandée.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCategoriesVersion() {
+        TableVersionView version = categoryRepository.findTableVersion();
+        return ResourceVersion.of("categories-" + version.getRowCount() + "-"
+                + (version.getVersionSum() == null ? 0 : version.getVersionSum()) + "-"
+                + (version.getMaxId() == null ? 0 : version.getMaxId()));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<CategoryDTO> getAllCategories(String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        Long afterId = CursorUtils.decode(cursor);
+        logger.info("Récupération d'une page de catégories après l'ID : {} (taille {})", afterId, pageSize);
+
+        List<CategoryDTO> categories = categoryRepository.findDtoPage(afterId, PageRequest.of(0, pageSize + 1));
+        return CursorUtils.toPage(categories, pageSize, CategoryDTO::getIdCategory);
     }
 
     public CategoryDTO updateCategory(Long id, CategoryCreateDTO updateDTO) {
@@ -80,6 +129,7 @@ public class CategoryService {
         // Vérifier que le nouveau nom n'existe pas déjà (sauf si c'est le même)
         if (updateDTO.getName() != null &&
                 !category.getName().equals(updateDTO.getName()) &&
+                uniqueKeyFilter.mightContainCategoryName(updateDTO.getName()) &&
                 categoryRepository.existsByName(updateDTO.getName())) {
             throw new ValidationException("Une catégorie avec ce nom existe déjà");
         }
@@ -92,10 +142,12 @@ public class CategoryService {
             category.setDescription(updateDTO.getDescription());
         }
 
-        Category updatedCategory = categoryRepository.save(category);
+        Category updatedCategory = saveCategory(category);
         logger.info("Catégorie mise à jour avec succès : ID = {}", updatedCategory.getIdCategory());
 
-        return categoryMapper.toDTO(updatedCategory);
+        CategoryDTO categoryDTO = categoryMapper.toDTO(updatedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.UPDATED, id, categoryDTO));
+        return categoryDTO;
     }
 
 
@@ -115,6 +167,7 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.DELETED, id, null));
         logger.info("Catégorie supprimée avec succès : ID = {}", id);
     }
 
@@ -126,17 +179,44 @@ public class CategoryService {
             throw new ResourceNotFoundException("Category", categoryId);
         }
 
-        return filmRepository.findByCategoryId(categoryId).stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+        return filmRepository.findDtosByCategoryId(categoryId);
     }
 
 
     @Transactional(readOnly = true)
-    public List<CategoryDTO> searchCategoriesByName(String name) {
-        logger.info("Recherche de catégories par nom : {}", name);
-        return categoryRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(categoryMapper::toDTO)
+    public List<CategoryDTO> searchCategoriesByName(String name, Integer limit) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        logger.info("Recherche de catégories par nom : {} ({} résultats max)", name, maxResults);
+
+        if (!categorySearchIndex.isReady()) {
+            return categoryRepository.findDtosByNameContaining(name, PageRequest.of(0, maxResults));
+        }
+
+        List<Long> ids = categorySearchIndex.search(name, maxResults);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, CategoryDTO> categories = categoryRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(CategoryDTO::getIdCategory, Function.identity()));
+        return ids.stream()
+                .map(categories::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Enregistre la catégorie en forçant l'écriture : la contrainte d'unicité sur le nom
+     * rejette un doublon passé entre le contrôle et l'insertion.
+     */
+    private Category saveCategory(Category category) {
+        uniqueKeyFilter.addCategoryName(category.getName());
+        try {
+            return categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException e) {
+            if (DuplicateKeyUtils.isDuplicateKey(e)) {
+                throw new ValidationException("Une catégorie avec ce nom existe déjà", e);
+            }
+            throw e;
+        }
+    }
+}
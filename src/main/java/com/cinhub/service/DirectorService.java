@@ -1,23 +1,39 @@
 package com.cinhub.service;
 
+import com.cinhub.config.PaginationProperties;
 import com.cinhub.dto.DirectorCreateDTO;
 import com.cinhub.dto.DirectorDTO;
 import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.PageResponse;
 import com.cinhub.entity.Director;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.DirectorChangedEvent;
 import com.cinhub.exception.BusinessRuleException;
 import com.cinhub.exception.ResourceNotFoundException;
 import com.cinhub.exception.ValidationException;
 import com.cinhub.mapper.DirectorMapper;
-import com.cinhub.mapper.FilmMapper;
 import com.cinhub.repository.DirectorRepository;
 import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.VersionView;
+import com.cinhub.search.DirectorSearchIndex;
+import com.cinhub.search.UniqueKeyFilter;
+import com.cinhub.util.CursorUtils;
+import com.cinhub.util.DuplicateKeyUtils;
+import com.cinhub.util.ResourceVersion;
 import com.cinhub.validation.ValidationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,16 +45,25 @@ public class DirectorService {
     private final DirectorRepository directorRepository;
     private final FilmRepository filmRepository;
     private final DirectorMapper directorMapper;
-    private final FilmMapper filmMapper;
+    private final PaginationProperties paginationProperties;
+    private final DirectorSearchIndex directorSearchIndex;
+    private final UniqueKeyFilter uniqueKeyFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DirectorService(DirectorRepository directorRepository,
                            FilmRepository filmRepository,
                            DirectorMapper directorMapper,
-                           FilmMapper filmMapper) {
+                           PaginationProperties paginationProperties,
+                           DirectorSearchIndex directorSearchIndex,
+                           UniqueKeyFilter uniqueKeyFilter,
+                           ApplicationEventPublisher eventPublisher) {
         this.directorRepository = directorRepository;
         this.filmRepository = filmRepository;
         this.directorMapper = directorMapper;
-        this.filmMapper = filmMapper;
+        this.paginationProperties = paginationProperties;
+        this.directorSearchIndex = directorSearchIndex;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -49,33 +74,44 @@ public class DirectorService {
         // Validation de la date de naissance
         ValidationUtils.validateBirthDate(createDTO.getBirthDate());
 
-        // Vérifier que le réalisateur n'existe pas déjà
-        if (directorRepository.existsByFullName(createDTO.getFirstName(), createDTO.getLastName())) {
+        // Vérifier que le réalisateur n'existe pas déjà (pas de requête si le préfiltre l'exclut)
+        if (uniqueKeyFilter.mightContainDirectorName(createDTO.getFirstName(), createDTO.getLastName()) &&
+                directorRepository.existsByFullName(createDTO.getFirstName(), createDTO.getLastName())) {
             throw new ValidationException("Un réalisateur avec ce nom existe déjà");
         }
 
         Director director = directorMapper.toEntity(createDTO);
-        Director savedDirector = directorRepository.save(director);
+        Director savedDirector = saveDirector(director);
 
         logger.info("Réalisateur créé avec succès : ID = {}", savedDirector.getIdDirector());
-        return directorMapper.toDTO(savedDirector);
+        DirectorDTO directorDTO = directorMapper.toDTO(savedDirector);
+        eventPublisher.publishEvent(new DirectorChangedEvent(ChangeType.CREATED, savedDirector.getIdDirector(), directorDTO));
+        return directorDTO;
     }
 
 
     @Transactional(readOnly = true)
     public DirectorDTO getDirectorById(Long id) {
         logger.info("Récupération du réalisateur avec l'ID : {}", id);
-        Director director = directorRepository.findById(id)
+        return directorRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Director", id));
-        return directorMapper.toDTO(director);
     }
 
     @Transactional(readOnly = true)
-    public List<DirectorDTO> getAllDirectors() {
-        logger.info("Récupération de tous les réalisateurs");
-        return directorRepository.findAll().stream()
-                .map(directorMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResourceVersion getDirectorVersion(Long id) {
+        VersionView version = directorRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Director", id));
+        return ResourceVersion.of("director-" + id + "-" + version.getVersion(), version.getUpdatedAt());
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<DirectorDTO> getAllDirectors(String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        Long afterId = CursorUtils.decode(cursor);
+        logger.info("Récupération d'une page de réalisateurs après l'ID : {} (taille {})", afterId, pageSize);
+
+        List<DirectorDTO> directors = directorRepository.findDtoPage(afterId, PageRequest.of(0, pageSize + 1));
+        return CursorUtils.toPage(directors, pageSize, DirectorDTO::getIdDirector);
     }
 
 
@@ -96,6 +132,7 @@ public class DirectorService {
                     !director.getLastName().equals(updateDTO.getLastName());
 
             if (isDifferentName &&
+                    uniqueKeyFilter.mightContainDirectorName(updateDTO.getFirstName(), updateDTO.getLastName()) &&
                     directorRepository.existsByFullName(updateDTO.getFirstName(), updateDTO.getLastName())) {
                 throw new ValidationException("Un réalisateur avec ce nom existe déjà");
             }
@@ -118,10 +155,12 @@ public class DirectorService {
             director.setBiography(updateDTO.getBiography());
         }
 
-        Director updatedDirector = directorRepository.save(director);
+        Director updatedDirector = saveDirector(director);
         logger.info("Réalisateur mis à jour avec succès : ID = {}", updatedDirector.getIdDirector());
 
-        return directorMapper.toDTO(updatedDirector);
+        DirectorDTO directorDTO = directorMapper.toDTO(updatedDirector);
+        eventPublisher.publishEvent(new DirectorChangedEvent(ChangeType.UPDATED, id, directorDTO));
+        return directorDTO;
     }
 
 
@@ -141,6 +180,7 @@ public class DirectorService {
         }
 
         directorRepository.deleteById(id);
+        eventPublisher.publishEvent(new DirectorChangedEvent(ChangeType.DELETED, id, null));
         logger.info("Réalisateur supprimé avec succès : ID = {}", id);
     }
 
@@ -153,33 +193,63 @@ public class DirectorService {
             throw new ResourceNotFoundException("Director", directorId);
         }
 
-        return filmRepository.findByDirectorId(directorId).stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+        return filmRepository.findDtosByDirectorId(directorId);
     }
 
 
     @Transactional(readOnly = true)
-    public List<DirectorDTO> searchDirectorsByLastName(String lastName) {
-        logger.info("Recherche de réalisateurs par nom : {}", lastName);
-        return directorRepository.findByLastNameContainingIgnoreCase(lastName).stream()
-                .map(directorMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<DirectorDTO> searchDirectorsByLastName(String lastName, Integer limit) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        logger.info("Recherche de réalisateurs par nom : {} ({} résultats max)", lastName, maxResults);
+
+        if (!directorSearchIndex.isReady()) {
+            return directorRepository.findDtosByLastNameContaining(lastName, PageRequest.of(0, maxResults));
+        }
+        return loadInOrder(directorSearchIndex.searchByLastName(lastName, maxResults));
     }
 
     @Transactional(readOnly = true)
-    public List<DirectorDTO> searchDirectorsByFirstName(String firstName) {
-        logger.info("Recherche de réalisateurs par prénom : {}", firstName);
-        return directorRepository.findByFirstNameContainingIgnoreCase(firstName).stream()
-                .map(directorMapper::toDTO)
+    public List<DirectorDTO> searchDirectorsByFirstName(String firstName, Integer limit) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        logger.info("Recherche de réalisateurs par prénom : {} ({} résultats max)", firstName, maxResults);
+
+        if (!directorSearchIndex.isReady()) {
+            return directorRepository.findDtosByFirstNameContaining(firstName, PageRequest.of(0, maxResults));
+        }
+        return loadInOrder(directorSearchIndex.searchByFirstName(firstName, maxResults));
+    }
+
+    private List<DirectorDTO> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, DirectorDTO> directors = directorRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(DirectorDTO::getIdDirector, Function.identity()));
+        return ids.stream()
+                .map(directors::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<DirectorDTO> searchDirectorsByNationality(String nationality) {
         logger.info("Recherche de réalisateurs par nationalité : {}", nationality);
-        return directorRepository.findByNationality(nationality).stream()
-                .map(directorMapper::toDTO)
-                .collect(Collectors.toList());
+        return directorRepository.findDtosByNationality(nationality);
+    }
+
+    /**
+     * Enregistre le réalisateur en forçant l'écriture : la contrainte d'unicité sur le nom
+     * complet rejette un doublon passé entre le contrôle et l'insertion.
+     */
+    private Director saveDirector(Director director) {
+        uniqueKeyFilter.addDirectorName(director.getFirstName(), director.getLastName());
+        try {
+            return directorRepository.saveAndFlush(director);
+        } catch (DataIntegrityViolationException e) {
+            if (DuplicateKeyUtils.isDuplicateKey(e)) {
+                throw new ValidationException("Un réalisateur avec ce nom existe déjà", e);
+            }
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,313 @@
+package com.cinhub.service;
+
+import com.cinhub.dto.BulkFilmResultDTO;
+import com.cinhub.dto.BulkImportReportDTO;
+import com.cinhub.dto.FilmCreateDTO;
+import com.cinhub.entity.Category;
+import com.cinhub.entity.Director;
+import com.cinhub.entity.Film;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.exception.ValidationException;
+import com.cinhub.mapper.FilmMapper;
+import com.cinhub.repository.CategoryRepository;
+import com.cinhub.repository.DirectorRepository;
+import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.FilmTitleView;
+import com.cinhub.search.TextNormalizer;
+import com.cinhub.search.UniqueKeyFilter;
+import com.cinhub.util.DuplicateKeyUtils;
+import com.cinhub.validation.ValidationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Import massif de films : les lignes sont lues au fil de l'eau, validées, puis traitées
+ * par tranches. Chaque tranche résout réalisateurs, catégories et titres existants en une
+ * requête ensembliste chacun, insère les films par lots JDBC et est validée dans sa propre
+ * transaction. L'identité IDENTITY de {@code Film} empêchant le batching Hibernate,
+ * l'insertion passe directement par JDBC.
+ *
+ * <p>Les doublons de titre sont détectés à la manière de la collation de
+ * {@code uk_films_title} (accents et casse ignorés). Une tranche rejetée malgré tout par
+ * la contrainte d'unicité (écriture concurrente) est reprise ligne à ligne : seule la
+ * ligne en double est rejetée.
+ */
+@Service
+@Lazy
+public class FilmImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilmImportService.class);
+
+    private static final String INSERT_FILM_SQL =
+            "INSERT INTO films (title, release_year, duration, synopsis, rating, director_id, category_id, created_at, updated_at, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final FilmRepository filmRepository;
+    private final DirectorRepository directorRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final FilmMapper filmMapper;
+    private final UniqueKeyFilter uniqueKeyFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int chunkSize;
+
+    public FilmImportService(FilmRepository filmRepository,
+                             DirectorRepository directorRepository,
+                             CategoryRepository categoryRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             FilmMapper filmMapper,
+                             UniqueKeyFilter uniqueKeyFilter,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${cinhub.bulk.batch-size:500}") int batchSize,
+                             @Value("${cinhub.bulk.chunk-size:5000}") int chunkSize) {
+        this.filmRepository = filmRepository;
+        this.directorRepository = directorRepository;
+        this.categoryRepository = categoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.filmMapper = filmMapper;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportReportDTO importFilms(Iterator<FilmCreateDTO> films) {
+        logger.info("Import massif de films (lots de {}, tranches de {})", batchSize, chunkSize);
+
+        List<BulkFilmResultDTO> results = new ArrayList<>();
+        List<PendingFilm> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (true) {
+            FilmCreateDTO dto;
+            try {
+                if (!films.hasNext()) {
+                    break;
+                }
+                dto = films.next();
+            } catch (RuntimeException e) {
+                // Flux illisible : on valide ce qui a déjà été lu et on s'arrête là
+                logger.warn("Lecture du flux d'import interrompue à la ligne {} : {}", index, e.getMessage());
+                results.add(rejected(index, null, "Ligne illisible : " + e.getMessage()));
+                break;
+            }
+
+            String error = validate(dto);
+            if (error != null) {
+                results.add(rejected(index, dto.getTitle(), error));
+            } else {
+                chunk.add(new PendingFilm(index, dto));
+            }
+            index++;
+
+            if (chunk.size() >= chunkSize) {
+                results.addAll(importChunk(chunk));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk));
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        int created = (int) results.stream().filter(r -> r.getStatus() == BulkFilmResultDTO.Status.CREATED).count();
+
+        logger.info("Import massif terminé : {} créé(s), {} rejeté(s)", created, results.size() - created);
+        return BulkImportReportDTO.builder()
+                .total(results.size())
+                .created(created)
+                .rejected(results.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private String validate(FilmCreateDTO dto) {
+        if (dto == null) {
+            return "Ligne vide";
+        }
+        Set<ConstraintViolation<FilmCreateDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " : " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        try {
+            ValidationUtils.validateReleaseYear(dto.getReleaseYear());
+            ValidationUtils.validateRating(dto.getRating());
+            ValidationUtils.validateDuration(dto.getDuration());
+        } catch (ValidationException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private List<BulkFilmResultDTO> importChunk(List<PendingFilm> chunk) {
+        try {
+            return transactionTemplate.execute(status -> insertChunk(chunk));
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateKeyUtils.isDuplicateKey(e)) {
+                return failed(chunk, e);
+            }
+            if (chunk.size() == 1) {
+                PendingFilm pending = chunk.get(0);
+                return List.of(rejected(pending.index, pending.dto.getTitle(), "Un film avec ce titre existe déjà"));
+            }
+            logger.warn("Titre en double inséré entre le contrôle et l'insertion : reprise ligne à ligne de la tranche de {} film(s)",
+                    chunk.size());
+            List<BulkFilmResultDTO> results = new ArrayList<>(chunk.size());
+            for (PendingFilm pending : chunk) {
+                results.addAll(importChunk(List.of(pending)));
+            }
+            return results;
+        } catch (DataAccessException e) {
+            return failed(chunk, e);
+        }
+    }
+
+    private List<BulkFilmResultDTO> failed(List<PendingFilm> chunk, DataAccessException e) {
+        logger.error("Échec de l'import d'une tranche de {} film(s)", chunk.size(), e);
+        return chunk.stream()
+                .map(p -> rejected(p.index, p.dto.getTitle(), "Échec de l'insertion : " + e.getMostSpecificCause().getMessage()))
+                .collect(Collectors.toList());
+    }
+
+    private List<BulkFilmResultDTO> insertChunk(List<PendingFilm> chunk) {
+        List<BulkFilmResultDTO> results = new ArrayList<>(chunk.size());
+
+        // Résolution ensembliste des références et des titres déjà présents
+        Map<Long, Director> directors = directorRepository.findAllById(
+                        chunk.stream().map(p -> p.dto.getDirectorId()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Director::getIdDirector, Function.identity()));
+        Map<Long, Category> categories = categoryRepository.findAllById(
+                        chunk.stream().map(p -> p.dto.getCategoryId()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Category::getIdCategory, Function.identity()));
+        // Seuls les titres que le préfiltre ne peut pas exclure sont vérifiés en base
+        Set<String> candidateTitles = chunk.stream()
+                .map(p -> p.dto.getTitle())
+                .filter(uniqueKeyFilter::mightContainFilmTitle)
+                .collect(Collectors.toSet());
+        Set<String> takenTitles = candidateTitles.isEmpty()
+                ? new HashSet<>()
+                : filmRepository.findTitleViewsByTitleIn(candidateTitles).stream()
+                        .map(view -> titleKey(view.getTitle()))
+                        .collect(Collectors.toCollection(HashSet::new));
+
+        List<PendingFilm> accepted = new ArrayList<>(chunk.size());
+        for (PendingFilm pending : chunk) {
+            FilmCreateDTO dto = pending.dto;
+            if (!directors.containsKey(dto.getDirectorId())) {
+                results.add(rejected(pending.index, dto.getTitle(), "Director introuvable avec l'ID : " + dto.getDirectorId()));
+            } else if (!categories.containsKey(dto.getCategoryId())) {
+                results.add(rejected(pending.index, dto.getTitle(), "Category introuvable avec l'ID : " + dto.getCategoryId()));
+            } else if (!takenTitles.add(titleKey(dto.getTitle()))) {
+                results.add(rejected(pending.index, dto.getTitle(), "Un film avec ce titre existe déjà"));
+            } else {
+                accepted.add(pending);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        accepted.forEach(pending -> uniqueKeyFilter.addFilmTitle(pending.dto.getTitle()));
+        LocalDateTime now = LocalDateTime.now();
+        Date today = Date.valueOf(now.toLocalDate());
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_FILM_SQL, accepted, batchSize, (ps, pending) -> {
+            FilmCreateDTO dto = pending.dto;
+            ps.setString(1, dto.getTitle());
+            ps.setInt(2, dto.getReleaseYear());
+            ps.setInt(3, dto.getDuration());
+            ps.setString(4, dto.getSynopsis());
+            if (dto.getRating() != null) {
+                ps.setDouble(5, dto.getRating());
+            } else {
+                ps.setNull(5, Types.DOUBLE);
+            }
+            ps.setLong(6, dto.getDirectorId());
+            ps.setLong(7, dto.getCategoryId());
+            ps.setDate(8, today);
+            ps.setTimestamp(9, updatedAt);
+        });
+
+        // Récupération des identifiants générés en une seule requête
+        Map<String, Long> ids = new HashMap<>();
+        filmRepository.findTitleViewsByTitleIn(accepted.stream().map(p -> p.dto.getTitle()).collect(Collectors.toList()))
+                .forEach(view -> ids.merge(view.getTitle(), view.getIdFilm(), Math::max));
+
+        for (PendingFilm pending : accepted) {
+            FilmCreateDTO dto = pending.dto;
+            Long idFilm = ids.get(dto.getTitle());
+            results.add(BulkFilmResultDTO.builder()
+                    .index(pending.index)
+                    .status(BulkFilmResultDTO.Status.CREATED)
+                    .idFilm(idFilm)
+                    .title(dto.getTitle())
+                    .build());
+
+            // Les films insérés par JDBC sont annoncés comme ceux créés via FilmService
+            Film film = filmMapper.toEntity(dto, directors.get(dto.getDirectorId()), categories.get(dto.getCategoryId()));
+            film.setIdFilm(idFilm);
+            eventPublisher.publishEvent(new FilmChangedEvent(ChangeType.CREATED, idFilm, filmMapper.toDTO(film), 0L));
+        }
+        logger.info("Tranche importée : {} film(s) insérés, {} rejeté(s)", accepted.size(), chunk.size() - accepted.size());
+        return results;
+    }
+
+    private static String titleKey(String title) {
+        return TextNormalizer.fold(title);
+    }
+
+    private static BulkFilmResultDTO rejected(int index, String title, String error) {
+        return BulkFilmResultDTO.builder()
+                .index(index)
+                .status(BulkFilmResultDTO.Status.REJECTED)
+                .title(title)
+                .error(error)
+                .build();
+    }
+
+    private static final class PendingFilm {
+        private final int index;
+        private final FilmCreateDTO dto;
+
+        private PendingFilm(int index, FilmCreateDTO dto) {
+            this.index = index;
+            this.dto = dto;
+        }
+    }
+}
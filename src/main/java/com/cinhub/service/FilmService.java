@@ -1,25 +1,63 @@
 package com.cinhub.service;
 
+import com.cinhub.config.PaginationProperties;
 import com.cinhub.dto.FilmCreateDTO;
+import com.cinhub.dto.FacetCountDTO;
 import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFacetFilterDTO;
+import com.cinhub.dto.FilmFacetsDTO;
+import com.cinhub.dto.FilmFilterDTO;
+import com.cinhub.dto.FilmRankingDTO;
 import com.cinhub.dto.FilmUpdateDTO;
+import com.cinhub.dto.PageResponse;
 import com.cinhub.entity.Category;
 import com.cinhub.entity.Director;
 import com.cinhub.entity.Film;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.FilmChangedEvent;
 import com.cinhub.exception.ResourceNotFoundException;
 import com.cinhub.exception.ValidationException;
 import com.cinhub.mapper.FilmMapper;
 import com.cinhub.repository.CategoryRepository;
 import com.cinhub.repository.DirectorRepository;
+import com.cinhub.repository.FilmFacet;
+import com.cinhub.repository.FilmFacetCounts;
 import com.cinhub.repository.FilmRepository;
+import com.cinhub.repository.FilmSort;
+import com.cinhub.repository.FilmRatingView;
+import com.cinhub.repository.FilmVersionView;
+import com.cinhub.search.FilmColumnStore;
+import com.cinhub.search.FilmFacetIndex;
+import com.cinhub.search.FilmLeaderboard;
+import com.cinhub.search.FilmSearchIndex;
+import com.cinhub.search.UniqueKeyFilter;
+import com.cinhub.util.CursorUtils;
+import com.cinhub.util.DuplicateKeyUtils;
+import com.cinhub.util.ResourceVersion;
 import com.cinhub.validation.ValidationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -27,19 +65,43 @@ public class FilmService {
 
     private static final Logger logger = LoggerFactory.getLogger(FilmService.class);
 
+    private static final int DEFAULT_TOP_LIMIT = 20;
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final FilmRepository filmRepository;
     private final DirectorRepository directorRepository;
     private final CategoryRepository categoryRepository;
     private final FilmMapper filmMapper;
+    private final PaginationProperties paginationProperties;
+    private final FilmSearchIndex filmSearchIndex;
+    private final FilmLeaderboard filmLeaderboard;
+    private final FilmColumnStore filmColumnStore;
+    private final FilmFacetIndex filmFacetIndex;
+    private final UniqueKeyFilter uniqueKeyFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public FilmService(FilmRepository filmRepository,
                        DirectorRepository directorRepository,
                        CategoryRepository categoryRepository,
-                       FilmMapper filmMapper) {
+                       FilmMapper filmMapper,
+                       PaginationProperties paginationProperties,
+                       FilmSearchIndex filmSearchIndex,
+                       FilmLeaderboard filmLeaderboard,
+                       FilmColumnStore filmColumnStore,
+                       FilmFacetIndex filmFacetIndex,
+                       UniqueKeyFilter uniqueKeyFilter,
+                       ApplicationEventPublisher eventPublisher) {
         this.filmRepository = filmRepository;
         this.directorRepository = directorRepository;
         this.categoryRepository = categoryRepository;
         this.filmMapper = filmMapper;
+        this.paginationProperties = paginationProperties;
+        this.filmSearchIndex = filmSearchIndex;
+        this.filmLeaderboard = filmLeaderboard;
+        this.filmColumnStore = filmColumnStore;
+        this.filmFacetIndex = filmFacetIndex;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -51,8 +113,9 @@ public class FilmService {
         ValidationUtils.validateRating(createDTO.getRating());
         ValidationUtils.validateDuration(createDTO.getDuration());
 
-        // Vérifier que le titre n'existe pas déjà
-        if (filmRepository.existsByTitle(createDTO.getTitle())) {
+        // Vérifier que le titre n'existe pas déjà (pas de requête si le préfiltre l'exclut)
+        if (uniqueKeyFilter.mightContainFilmTitle(createDTO.getTitle()) &&
+                filmRepository.existsByTitle(createDTO.getTitle())) {
             throw new ValidationException("Un film avec ce titre existe déjà");
         }
 
@@ -66,38 +129,182 @@ public class FilmService {
 
         // Créer et sauvegarder le film
         Film film = filmMapper.toEntity(createDTO, director, category);
-        Film savedFilm = filmRepository.save(film);
+        Film savedFilm = saveFilm(film);
 
         logger.info("Film créé avec succès : ID = {}", savedFilm.getIdFilm());
-        return filmMapper.toDTO(savedFilm);
+        FilmDTO filmDTO = filmMapper.toDTO(savedFilm);
+        eventPublisher.publishEvent(new FilmChangedEvent(ChangeType.CREATED, savedFilm.getIdFilm(), filmDTO, savedFilm.getVersion()));
+        return filmDTO;
     }
 
     @Transactional(readOnly = true)
     public FilmDTO getFilmById(Long id) {
         logger.info("Récupération du film avec l'ID : {}", id);
-        Film film = filmRepository.findByIdWithDetails(id)
+        return filmRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Film", id));
-        return filmMapper.toDTO(film);
     }
 
+    /**
+     * Validateurs HTTP du film : sa représentation intègre le réalisateur et la catégorie,
+     * leurs versions font donc partie de l'ETag.
+     */
     @Transactional(readOnly = true)
-    public List<FilmDTO> getAllFilms() {
-        logger.info("Récupération de tous les films");
-        return filmRepository.findAllWithDetails().stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResourceVersion getFilmVersion(Long id) {
+        FilmVersionView version = filmRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Film", id));
+        return ResourceVersion.of(
+                "film-" + id + "-" + version.getVersion() + "-" + version.getDirectorVersion() + "-" + version.getCategoryVersion(),
+                version.getUpdatedAt(), version.getDirectorUpdatedAt(), version.getCategoryUpdatedAt());
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<FilmDTO> getAllFilms(String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        Long afterId = CursorUtils.decode(cursor);
+        logger.info("Récupération d'une page de films après l'ID : {} (taille {})", afterId, pageSize);
+
+        List<FilmDTO> films = filmRepository.findDtoPage(afterId, PageRequest.of(0, pageSize + 1));
+        return CursorUtils.toPage(films, pageSize, FilmDTO::getIdFilm);
+    }
+
+    /**
+     * Filtre multicritère (années, notes, durées, catégories, réalisateurs, nationalité)
+     * en une requête, triée côté serveur et paginée par curseur sur (valeur de tri, id).
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<FilmDTO> filterFilms(FilmFilterDTO filter, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        validateFilterRanges(filter);
+
+        // Tri « champ[,asc|desc] », par identifiant croissant à défaut
+        String[] sortParts = filter.getSort() == null || filter.getSort().isBlank()
+                ? new String[]{FilmSort.ID.getParam()}
+                : filter.getSort().trim().toLowerCase(Locale.ROOT).split("\\s*,\\s*");
+        FilmSort sort = FilmSort.fromParam(sortParts[0]);
+        if (sort == null || sortParts.length > 2
+                || (sortParts.length == 2 && !sortParts[1].equals("asc") && !sortParts[1].equals("desc"))) {
+            throw new ValidationException("Tri invalide : attendu champ[,asc|desc] parmi " + FilmSort.allowedParams());
+        }
+        boolean descending = sortParts.length == 2 && sortParts[1].equals("desc");
+        String sortKey = sort.getParam() + (descending ? ",desc" : ",asc");
+
+        CursorUtils.SortedPosition after = CursorUtils.decodeSorted(cursor, sortKey);
+        Object afterValue;
+        try {
+            afterValue = after != null && after.getLastValue() != null ? sort.parseValue(after.getLastValue()) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Curseur de pagination invalide", e);
+        }
+        logger.info("Filtre de films {} trié par {} (taille {})", filter, sortKey, pageSize);
+
+        Long afterId = after != null ? after.getLastId() : null;
+        List<FilmDTO> films;
+        if (filmColumnStore.isReady() && filmColumnStore.supports(filter, sort)) {
+            // Tri et pagination en mémoire, puis relecture de la seule page par clé primaire
+            films = findDtosByIds(filmColumnStore.findPage(filter, sort, descending, afterId, afterValue, pageSize + 1));
+        } else {
+            films = filmRepository.findDtosByFilter(filter, sort, descending, afterId, afterValue, pageSize + 1);
+        }
+        return CursorUtils.toPageWithCursor(films, pageSize,
+                film -> CursorUtils.encodeSorted(sortKey, film.getIdFilm(), sort.valueOf(film)));
+    }
+
+    /**
+     * Nombre de films répondant aux critères de GET /films/filter, compté en mémoire sans
+     * requête tant que le magasin en colonnes est prêt
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countFilms(FilmFilterDTO filter) {
+        validateFilterRanges(filter);
+        logger.info("Comptage des films {}", filter);
+
+        if (filmColumnStore.isReady() && filmColumnStore.supports(filter, FilmSort.ID)) {
+            return filmColumnStore.count(filter);
+        }
+        return filmRepository.countByFilter(filter);
+    }
+
+    /**
+     * Comptes de facettes (catégories, décennies, tranches de note, nationalités) de la
+     * sélection, calculés sur l'index bitmap en mémoire, ou par une requête groupée par
+     * facette tant qu'il n'est pas prêt
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FilmFacetsDTO getFacets(FilmFacetFilterDTO filter) {
+        for (Object decade : FilmFacet.DECADE.selectedIn(filter)) {
+            if (decade == null || !decade.equals(FilmFacet.DECADE.bucketOf(decade))) {
+                throw new ValidationException("Décennie invalide : " + decade + " (attendu une année en 0, ex. 1990)");
+            }
+        }
+        for (Object bucket : FilmFacet.RATING.selectedIn(filter)) {
+            if (bucket == null || !bucket.equals(FilmFacet.RATING.bucketOf(bucket)) || (Integer) bucket < 0) {
+                throw new ValidationException("Tranche de note invalide : " + bucket + " (attendu 0 à 9)");
+            }
+        }
+        logger.info("Facettes des films {}", filter);
+
+        FilmFacetCounts counts;
+        Map<Long, String> categoryNames = new HashMap<>();
+        if (filmFacetIndex.isReady()) {
+            counts = filmFacetIndex.count(filter);
+            for (Object idCategory : counts.get(FilmFacet.CATEGORY).keySet()) {
+                categoryNames.put((Long) idCategory, filmFacetIndex.getCategoryName((Long) idCategory));
+            }
+        } else {
+            counts = filmRepository.countFacets(filter);
+            List<Long> ids = counts.get(FilmFacet.CATEGORY).keySet().stream()
+                    .map(Long.class::cast)
+                    .collect(Collectors.toList());
+            categoryRepository.findAllById(ids).forEach(category ->
+                    categoryNames.put(category.getIdCategory(), category.getName()));
+        }
+
+        Comparator<FacetCountDTO> byCount = Comparator.comparingLong(FacetCountDTO::getCount).reversed()
+                .thenComparing(FacetCountDTO::getLabel, Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<FacetCountDTO> byValue = Comparator.comparing(value -> (Integer) value.getValue());
+        return FilmFacetsDTO.builder()
+                .total(counts.getTotal())
+                .categories(facetValues(FilmFacet.CATEGORY, counts, filter, value -> categoryNames.get(value), byCount))
+                .decades(facetValues(FilmFacet.DECADE, counts, filter, value -> "Années " + value, byValue))
+                .ratings(facetValues(FilmFacet.RATING, counts, filter,
+                        value -> value + " à " + ((Integer) value + 1), byValue.reversed()))
+                .nationalities(facetValues(FilmFacet.NATIONALITY, counts, filter, String::valueOf, byCount))
+                .build();
+    }
+
+    /**
+     * Parcourt tout le catalogue en lecture seule et transmet chaque film au consommateur,
+     * sans jamais matérialiser la liste complète. Les lignes sont projetées directement en
+     * DTO : rien n'entre dans le contexte de persistance et la mémoire reste constante.
+     */
+    @Transactional(readOnly = true)
+    public long exportFilms(Consumer<FilmDTO> sink) {
+        logger.info("Export en continu du catalogue de films");
+        long count = 0;
+
+        try (Stream<FilmDTO> films = filmRepository.streamAllDtos()) {
+            Iterator<FilmDTO> iterator = films.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+
+        logger.info("Export terminé : {} film(s)", count);
+        return count;
     }
 
     public FilmDTO updateFilm(Long id, FilmUpdateDTO updateDTO) {
         logger.info("Mise à jour du film avec l'ID : {}", id);
 
-        Film film = filmRepository.findById(id)
+        Film film = filmRepository.findByIdWithDetails(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Film", id));
 
         // Mettre à jour les champs si fournis
         if (updateDTO.getTitle() != null) {
             // Vérifier que le nouveau titre n'existe pas déjà
             if (!film.getTitle().equals(updateDTO.getTitle()) &&
+                    uniqueKeyFilter.mightContainFilmTitle(updateDTO.getTitle()) &&
                     filmRepository.existsByTitle(updateDTO.getTitle())) {
                 throw new ValidationException("Un film avec ce titre existe déjà");
             }
@@ -135,38 +342,87 @@ public class FilmService {
             film.setCategory(category);
         }
 
-        Film updatedFilm = filmRepository.save(film);
+        Film updatedFilm = saveFilm(film);
         logger.info("Film mis à jour avec succès : ID = {}", updatedFilm.getIdFilm());
 
-        return filmMapper.toDTO(updatedFilm);
+        FilmDTO filmDTO = filmMapper.toDTO(updatedFilm);
+        eventPublisher.publishEvent(new FilmChangedEvent(ChangeType.UPDATED, id, filmDTO, updatedFilm.getVersion()));
+        return filmDTO;
     }
 
     public void deleteFilm(Long id) {
         logger.info("Suppression du film avec l'ID : {}", id);
 
-        if (!filmRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Film", id);
-        }
+        Film film = filmRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Film", id));
 
-        filmRepository.deleteById(id);
+        filmRepository.delete(film);
+        eventPublisher.publishEvent(new FilmChangedEvent(ChangeType.DELETED, id, null, film.getVersion()));
         logger.info("Film supprimé avec succès : ID = {}", id);
     }
 
+    /**
+     * Palmarès des films les mieux notés, global ou d'une catégorie, lu dans les classements
+     * en mémoire (aucune transaction ni requête tant qu'ils sont prêts)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FilmRankingDTO> getTopRatedFilms(Long categoryId, Integer limit) {
+        int maxResults = paginationProperties.resolvePageSize(limit == null ? DEFAULT_TOP_LIMIT : limit);
+        logger.info("Palmarès des films par note (catégorie : {}, {} résultats max)", categoryId, maxResults);
+
+        if (filmLeaderboard.isReady()) {
+            return filmLeaderboard.top(categoryId, maxResults);
+        }
+        List<FilmRatingView> films = filmRepository.findTopRated(categoryId, PageRequest.of(0, maxResults));
+        List<FilmRankingDTO> top = new ArrayList<>(films.size());
+        for (FilmRatingView film : films) {
+            top.add(new FilmRankingDTO(top.size() + 1, film.getIdFilm(), film.getTitle(), film.getReleaseYear(),
+                    film.getRating(), film.getIdCategory()));
+        }
+        return top;
+    }
+
     @Transactional(readOnly = true)
-    public List<FilmDTO> searchFilmsByTitle(String title) {
-        logger.info("Recherche de films par titre : {}", title);
-        return filmRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<FilmDTO> searchFilmsByTitle(String title, Integer limit) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        logger.info("Recherche de films par titre : {} ({} résultats max)", title, maxResults);
+
+        // Requête plus courte qu'un trigramme : la base s'arrête aux premiers titres trouvés
+        // au lieu d'un parcours de tout l'index sous son verrou
+        if (!filmSearchIndex.isReady() || !filmSearchIndex.isSelective(title)) {
+            return filmRepository.findDtosByTitleContaining(title, PageRequest.of(0, maxResults));
+        }
+        // Rechargement des films classés, dans l'ordre de pertinence de l'index
+        return findDtosByIds(filmSearchIndex.searchTitles(title, maxResults));
+    }
+
+    /**
+     * Recherche plein texte : titres, plus synopsis si cinhub.search.index-synopsis est activé
+     */
+    @Transactional(readOnly = true)
+    public List<FilmDTO> searchFilmsByText(String text, Integer limit) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        logger.info("Recherche de films plein texte : {} ({} résultats max)", text, maxResults);
+
+        if (!filmSearchIndex.isReady() || !filmSearchIndex.isSelective(text)) {
+            // Repli sur la base, sur les mêmes champs que l'index
+            PageRequest page = PageRequest.of(0, maxResults);
+            return filmSearchIndex.isIndexingSynopsis()
+                    ? filmRepository.findDtosByTitleOrSynopsisContaining(text, page)
+                    : filmRepository.findDtosByTitleContaining(text, page);
+        }
+        return findDtosByIds(filmSearchIndex.searchText(text, maxResults));
     }
 
 
     @Transactional(readOnly = true)
     public List<FilmDTO> searchFilmsByYear(Integer year) {
         logger.info("Recherche de films par année : {}", year);
-        return filmRepository.findByReleaseYear(year).stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+
+        if (filmColumnStore.isReady()) {
+            return findDtosByIds(filmColumnStore.findIds(FilmFilterDTO.builder().minYear(year).maxYear(year).build()));
+        }
+        return filmRepository.findDtosByReleaseYear(year);
     }
 
 
@@ -179,9 +435,11 @@ public class FilmService {
             throw new ResourceNotFoundException("Category", categoryId);
         }
 
-        return filmRepository.findByCategoryId(categoryId).stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+        if (filmColumnStore.isReady()) {
+            return findDtosByIds(filmColumnStore.findIds(
+                    FilmFilterDTO.builder().categoryIds(List.of(categoryId)).build()));
+        }
+        return filmRepository.findDtosByCategoryId(categoryId);
     }
 
     @Transactional(readOnly = true)
@@ -190,9 +448,10 @@ public class FilmService {
 
         ValidationUtils.validateRating(minRating);
 
-        return filmRepository.findByRatingGreaterThanEqual(minRating).stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+        if (filmColumnStore.isReady()) {
+            return findDtosByIds(filmColumnStore.findIds(FilmFilterDTO.builder().minRating(minRating).build()));
+        }
+        return filmRepository.findDtosByMinRating(minRating);
     }
 
     @Transactional(readOnly = true)
@@ -204,8 +463,70 @@ public class FilmService {
             throw new ResourceNotFoundException("Director", directorId);
         }
 
-        return filmRepository.findByDirectorId(directorId).stream()
-                .map(filmMapper::toDTO)
+        if (filmColumnStore.isReady()) {
+            return findDtosByIds(filmColumnStore.findIds(
+                    FilmFilterDTO.builder().directorIds(List.of(directorId)).build()));
+        }
+        return filmRepository.findDtosByDirectorId(directorId);
+    }
+
+    // Valeurs comptées, plus les valeurs cochées sans film pour que l'interface les garde affichées
+    private static List<FacetCountDTO> facetValues(FilmFacet facet, FilmFacetCounts counts, FilmFacetFilterDTO filter,
+                                                   Function<Object, String> label, Comparator<FacetCountDTO> order) {
+        List<?> selected = facet.selectedIn(filter);
+        Map<Object, Long> values = new HashMap<>(counts.get(facet));
+        selected.forEach(value -> values.putIfAbsent(value, 0L));
+        return values.entrySet().stream()
+                .map(value -> new FacetCountDTO(value.getKey(), label.apply(value.getKey()), value.getValue(),
+                        selected.contains(value.getKey())))
+                .sorted(order)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private static void validateFilterRanges(FilmFilterDTO filter) {
+        ValidationUtils.validateRange(filter.getMinYear(), filter.getMaxYear(), "Année de sortie");
+        ValidationUtils.validateRange(filter.getMinRating(), filter.getMaxRating(), "Note");
+        ValidationUtils.validateRange(filter.getMinDuration(), filter.getMaxDuration(), "Durée");
+    }
+
+    /**
+     * Relit par clé primaire, par lots, les films retenus en mémoire, dans l'ordre des
+     * identifiants fournis. Un film supprimé entre-temps est simplement omis.
+     */
+    private List<FilmDTO> findDtosByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, FilmDTO> films = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            for (FilmDTO film : filmRepository.findDtosByIdIn(ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE)))) {
+                films.put(film.getIdFilm(), film);
+            }
+        }
+        return ids.stream()
+                .map(films::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<FilmDTO> findDtosByIds(long[] ids) {
+        return findDtosByIds(Arrays.stream(ids).boxed().collect(Collectors.toList()));
+    }
+
+    /**
+     * Enregistre le film en forçant l'écriture : un doublon passé entre le contrôle et
+     * l'insertion (autre transaction, autre instance) est rejeté par la contrainte
+     * d'unicité et signalé comme le contrôle l'aurait fait.
+     */
+    private Film saveFilm(Film film) {
+        uniqueKeyFilter.addFilmTitle(film.getTitle());
+        try {
+            return filmRepository.saveAndFlush(film);
+        } catch (DataIntegrityViolationException e) {
+            if (DuplicateKeyUtils.isDuplicateKey(e)) {
+                throw new ValidationException("Un film avec ce titre existe déjà", e);
+            }
+            throw e;
+        }
+    }
+}
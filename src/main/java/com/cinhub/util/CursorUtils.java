@@ -0,0 +1,126 @@
+package com.cinhub.util;
+
+import com.cinhub.dto.PageResponse;
+import com.cinhub.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Encodage des curseurs opaques utilisés par la pagination par clé (keyset).
+ * Le curseur transporte le dernier identifiant renvoyé ; la page suivante
+ * reprend strictement après celui-ci.
+ */
+public class CursorUtils {
+
+    private static final String PREFIX = "id:";
+    private static final String SORTED_PREFIX = "sort:";
+    private static final String SEPARATOR = "|";
+
+    public static String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new ValidationException("Curseur de pagination invalide");
+            }
+            long lastId = Long.parseLong(raw.substring(PREFIX.length()));
+            if (lastId < 0) {
+                throw new ValidationException("Curseur de pagination invalide");
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Curseur de pagination invalide", e);
+        }
+    }
+
+    /**
+     * Curseur d'une liste triée sur une autre clé que l'identifiant : il porte le tri
+     * demandé, le dernier identifiant et la dernière valeur de tri (absente si NULL).
+     */
+    public static String encodeSorted(String sort, Long lastId, Object lastValue) {
+        String raw = SORTED_PREFIX + sort + SEPARATOR + lastId + (lastValue != null ? SEPARATOR + lastValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Position décodée, ou {@code null} pour la première page. Un curseur émis pour un
+     * autre tri est refusé.
+     */
+    public static SortedPosition decodeSorted(String cursor, String sort) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String prefix = SORTED_PREFIX + sort + SEPARATOR;
+            if (!raw.startsWith(prefix)) {
+                throw new ValidationException("Curseur de pagination invalide pour ce tri");
+            }
+            String[] parts = raw.substring(prefix.length()).split(Pattern.quote(SEPARATOR), 2);
+            long lastId = Long.parseLong(parts[0]);
+            if (lastId < 0) {
+                throw new ValidationException("Curseur de pagination invalide");
+            }
+            return new SortedPosition(lastId, parts.length > 1 ? parts[1] : null);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Curseur de pagination invalide", e);
+        }
+    }
+
+    /**
+     * Construit une page à partir de {@code pageSize + 1} lignes lues : la ligne
+     * supplémentaire indique seulement qu'une page suivante existe.
+     */
+    public static <T> PageResponse<T> toPage(List<T> rows, int pageSize, Function<T, Long> idExtractor) {
+        return toPageWithCursor(rows, pageSize, item -> encode(idExtractor.apply(item)));
+    }
+
+    /**
+     * Comme {@link #toPage}, le curseur suivant étant calculé par {@code cursorEncoder}
+     * à partir de la dernière ligne de la page
+     */
+    public static <T> PageResponse<T> toPageWithCursor(List<T> rows, int pageSize, Function<T, String> cursorEncoder) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? cursorEncoder.apply(items.get(items.size() - 1)) : null;
+
+        return PageResponse.<T>builder()
+                .items(items)
+                .size(items.size())
+                .next(next)
+                .build();
+    }
+
+    /**
+     * Dernière position lue d'une liste triée : identifiant et valeur de tri brute
+     */
+    public static class SortedPosition {
+
+        private final long lastId;
+        private final String lastValue;
+
+        SortedPosition(long lastId, String lastValue) {
+            this.lastId = lastId;
+            this.lastValue = lastValue;
+        }
+
+        public long getLastId() {
+            return lastId;
+        }
+
+        public String getLastValue() {
+            return lastValue;
+        }
+    }
+}
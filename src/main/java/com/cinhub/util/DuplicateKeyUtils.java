@@ -0,0 +1,36 @@
+package com.cinhub.util;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+/**
+ * Reconnaît, parmi les violations d'intégrité, celles dues à une contrainte d'unicité
+ * (doublon inséré malgré le contrôle préalable), par opposition aux clés étrangères ou NOT NULL.
+ */
+public class DuplicateKeyUtils {
+
+    // ER_DUP_ENTRY et ER_DUP_ENTRY_WITH_KEY_NAME (MySQL)
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final int MYSQL_DUPLICATE_ENTRY_WITH_KEY_NAME = 1586;
+    // unique_violation (SQL standard : H2, PostgreSQL)
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    public static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                        || sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY_WITH_KEY_NAME
+                        || UNIQUE_VIOLATION_STATE.equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cinhub.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validateurs HTTP d'une ressource : ETag fort et date de dernière modification,
+ * calculés à partir des colonnes de version sans charger la ressource elle-même.
+ */
+public class ResourceVersion {
+
+    private final String etag;
+    private final long lastModified;
+
+    private ResourceVersion(String etag, long lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param updates dates de modification des lignes composant la représentation ; la plus récente est retenue
+     */
+    public static ResourceVersion of(String etag, LocalDateTime... updates) {
+        LocalDateTime latest = null;
+        for (LocalDateTime update : updates) {
+            if (update != null && (latest == null || update.isAfter(latest))) {
+                latest = update;
+            }
+        }
+        long lastModified = latest == null ? -1 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ResourceVersion(etag, lastModified);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /** Epoch en millisecondes, ou -1 si inconnue. */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -29,6 +29,12 @@ public class ValidationUtils {
         }
     }
 
+    public static <T extends Comparable<? super T>> void validateRange(T min, T max, String fieldName) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new ValidationException(fieldName + " : le minimum doit être inférieur ou égal au maximum");
+        }
+    }
+
     public static void validateBirthDate(LocalDate birthDate) {
         if (birthDate != null && birthDate.isAfter(LocalDate.now())) {
             throw new ValidationException("La date de naissance doit être dans le passé");
@@ -0,0 +1,79 @@
+package com.cinhub.web;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Convertisseur JSON qui prépare un {@link ObjectWriter} par type de réponse déclaré
+ * (ex. {@code PageResponse<FilmDTO>}) et le réutilise : le sérialiseur racine est résolu
+ * une fois pour toutes au lieu d'être recherché à chaque requête.
+ *
+ * <p>Les cas particuliers (vues, filtres, JSONP, encodage autre qu'UTF-8) restent traités
+ * par l'implémentation de Spring.
+ */
+public class CachingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final int MAX_CACHED_WRITERS = 256;
+
+    private final ConcurrentHashMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public CachingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        boolean utf8 = contentType == null || contentType.getCharset() == null
+                || StandardCharsets.UTF_8.equals(contentType.getCharset());
+        if (object instanceof MappingJacksonValue || !utf8) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        Type declaredType = type != null && TypeUtils.isAssignable(type, object.getClass())
+                ? type
+                : object.getClass();
+        ObjectWriter writer = writerFor(declaredType);
+
+        OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+        try (JsonGenerator generator = getObjectMapper().getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+            writer.writeValue(generator, object);
+        } catch (IOException ex) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getMessage(), ex);
+        }
+    }
+
+    private ObjectWriter writerFor(Type type) {
+        ObjectWriter writer = writers.get(type);
+        if (writer != null) {
+            return writer;
+        }
+        JavaType javaType = getJavaType(type, null);
+        writer = getObjectMapper().writerFor(javaType);
+        // Les types déclarés viennent des signatures de contrôleurs : le plafond ne protège que des cas dégénérés
+        if (writers.size() < MAX_CACHED_WRITERS) {
+            ObjectWriter existing = writers.putIfAbsent(type, writer);
+            return existing != null ? existing : writer;
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,395 @@
+package com.cinhub.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression gzip des réponses, négociée sur {@code Accept-Encoding}.
+ *
+ * <p>Le corps est retenu en mémoire jusqu'à {@code min-response-size} octets : une réponse
+ * plus courte part telle quelle avec son {@code Content-Length}, une réponse plus longue
+ * d'un type compressible est compressée au fil de l'eau. Un {@code flush()} du contrôleur
+ * vide aussi le compresseur (SYNC_FLUSH), ce qui garde les réponses en flux progressives.
+ *
+ * <p>Un ETag fort désigne une représentation exacte à l'octet près : celui d'une réponse
+ * compressée (ou d'un 304 négocié en gzip) devient faible ({@code W/"..."}). La comparaison
+ * de {@code If-None-Match} étant faible, les deux formes valident la même ressource.
+ * Une écriture non bloquante ({@code setWriteListener}) part sans compression.
+ */
+@Component("gzipCompressionFilter")
+public class GzipCompressionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GzipCompressionFilter.class);
+
+    private static final String GZIP = "gzip";
+    private static final String WRAPPER_ATTRIBUTE = GzipCompressionFilter.class.getName() + ".WRAPPER";
+
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final int compressionLevel;
+    private final List<MediaType> mimeTypes;
+
+    public GzipCompressionFilter(@Value("${cinhub.compression.enabled:true}") boolean enabled,
+                                 @Value("${cinhub.compression.min-response-size:1024}") int minResponseSize,
+                                 @Value("${cinhub.compression.level:6}") int compressionLevel,
+                                 @Value("${cinhub.compression.mime-types:application/json,text/plain,text/html,text/css,application/javascript}") String mimeTypes) {
+        this.enabled = enabled;
+        this.minResponseSize = Math.max(minResponseSize, 0);
+        this.compressionLevel = compressionLevel;
+        this.mimeTypes = Arrays.stream(StringUtils.commaDelimitedListToStringArray(mimeTypes))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(MediaType::parseMediaType)
+                .collect(Collectors.toList());
+        logger.info("Compression gzip des réponses {} (à partir de {} octets, niveau {})",
+                enabled ? "activée" : "désactivée", this.minResponseSize, compressionLevel);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Le second dispatch d'une requête asynchrone doit retrouver et terminer le même flux
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = (CompressingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+        if (wrapper == null) {
+            // Les caches intermédiaires doivent distinguer les variantes compressées ou non
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (!acceptsGzip(request)) {
+                chain.doFilter(request, response);
+                return;
+            }
+            wrapper = new CompressingResponseWrapper(response);
+            request.setAttribute(WRAPPER_ATTRIBUTE, wrapper);
+        }
+
+        chain.doFilter(request, wrapper);
+        if (!request.isAsyncStarted()) {
+            wrapper.finish();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : StringUtils.commaDelimitedListToStringArray(acceptEncoding)) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mimeTypes.stream().anyMatch(type -> type.includes(mediaType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Réponse dont le flux décide de compresser ou non une fois le seuil atteint.
+     */
+    private final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final CompressingOutputStream outputStream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        private CompressingResponseWrapper(HttpServletResponse response) {
+            super(response);
+            this.outputStream = new CompressingOutputStream(this, response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() a déjà été appelé pour cette réponse");
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                Charset charset = getCharacterEncoding() != null
+                        ? Charset.forName(getCharacterEncoding())
+                        : StandardCharsets.ISO_8859_1;
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, charset));
+            }
+            return writer;
+        }
+
+        // La longueur annoncée n'est transmise que si la réponse part non compressée
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = value != null ? Long.parseLong(value) : -1;
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setHeader(name, value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.flush();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            outputStream.reset();
+            contentLength = -1;
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            outputStream.reset();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.finish();
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final CompressingResponseWrapper wrapper;
+        private final HttpServletResponse response;
+        private byte[] buffer = new byte[256];
+        private int count;
+        private GZIPOutputStream gzip;
+        private ServletOutputStream passThrough;
+        private boolean finished;
+
+        private CompressingOutputStream(CompressingResponseWrapper wrapper, HttpServletResponse response) {
+            this.wrapper = wrapper;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (finished) {
+                throw new IOException("Réponse déjà terminée");
+            }
+            if (gzip != null) {
+                gzip.write(bytes, offset, length);
+            } else if (passThrough != null) {
+                passThrough.write(bytes, offset, length);
+            } else if (count + length <= minResponseSize) {
+                buffer(bytes, offset, length);
+            } else {
+                decide(true);
+                write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Tant que le seuil n'est pas atteint, on retient le corps pour connaître sa taille
+            if (gzip != null) {
+                gzip.flush();
+            } else if (passThrough != null) {
+                passThrough.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return gzip == null && passThrough == null || response.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (gzip == null && passThrough == null) {
+                    // Le compresseur écrit de façon bloquante : la réponse part telle quelle
+                    passThrough(wrapper.contentLength);
+                }
+                response.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void buffer(byte[] bytes, int offset, int length) {
+            if (count + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(count + length, Math.min(buffer.length * 2, minResponseSize)));
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        private void decide(boolean overThreshold) throws IOException {
+            int status = response.getStatus();
+            boolean compress = overThreshold
+                    && status != HttpServletResponse.SC_NO_CONTENT
+                    && status != HttpServletResponse.SC_NOT_MODIFIED
+                    && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && response.getHeader(HttpHeaders.CONTENT_RANGE) == null
+                    && isCompressible(response.getContentType());
+
+            if (compress) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                weakenETag();
+                gzip = new GZIPOutputStream(response.getOutputStream(), 8192, true) {
+                    {
+                        def.setLevel(compressionLevel);
+                    }
+                };
+                gzip.write(buffer, 0, count);
+                buffer = null;
+            } else {
+                passThrough(overThreshold ? wrapper.contentLength : count);
+            }
+        }
+
+        private void passThrough(long contentLength) throws IOException {
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+            passThrough = response.getOutputStream();
+            passThrough.write(buffer, 0, count);
+            buffer = null;
+        }
+
+        private void weakenETag() {
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+            }
+        }
+
+        private void reset() {
+            if (gzip != null || passThrough != null) {
+                throw new IllegalStateException("Réponse déjà engagée");
+            }
+            count = 0;
+        }
+
+        private void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (gzip == null && passThrough == null) {
+                if (count == 0) {
+                    // Corps vide : rien à écrire, on conserve les en-têtes posés par le contrôleur
+                    if (wrapper.contentLength >= 0) {
+                        response.setContentLengthLong(wrapper.contentLength);
+                    }
+                    if (response.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+                        // Même validateur que la réponse 200 compressée qu'il remplace
+                        weakenETag();
+                    }
+                    finished = true;
+                    return;
+                }
+                decide(false);
+            }
+            finished = true;
+            if (gzip != null) {
+                gzip.finish();
+                gzip.flush();
+            } else {
+                passThrough.flush();
+            }
+        }
+    }
+}
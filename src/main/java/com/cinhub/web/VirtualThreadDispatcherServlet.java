@@ -0,0 +1,212 @@
+package com.cinhub.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DispatcherServlet pouvant exécuter chaque requête sur un thread virtuel (Java 21+),
+ * activé par {@code cinhub.virtual-threads.enabled=true}.
+ *
+ * <p>Le thread Tomcat passe la requête en mode asynchrone, confie le traitement complet
+ * (contrôleur, JDBC, sérialisation) à un thread virtuel puis retourne aussitôt dans le pool
+ * du conteneur. Une fois le traitement terminé, la requête est redispatchée vers le
+ * conteneur pour que les filtres (compression) terminent la réponse.
+ *
+ * <p>Un sémaphore plafonne le nombre de requêtes en cours d'exécution (par défaut la taille
+ * du pool Hikari) : les requêtes excédentaires attendent sur un thread virtuel, qui ne
+ * coûte presque rien, puis reçoivent un 503 si aucune place ne se libère à temps.
+ * Les contrôleurs exécutés ainsi ne doivent pas démarrer eux-mêmes de traitement asynchrone.
+ */
+public class VirtualThreadDispatcherServlet extends DispatcherServlet {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDispatcherServlet.class);
+
+    private static final String EXECUTED_ATTRIBUTE = VirtualThreadDispatcherServlet.class.getName() + ".EXECUTED";
+    private static final String PROPERTY_PREFIX = "cinhub.virtual-threads.";
+
+    private ThreadFactory virtualThreads;
+    private Semaphore permits;
+    private long acquireTimeoutMillis;
+    private Counter rejected;
+    private ObjectMapper objectMapper;
+
+    public VirtualThreadDispatcherServlet(WebApplicationContext webApplicationContext) {
+        super(webApplicationContext);
+    }
+
+    @Override
+    protected void initFrameworkServlet() {
+        WebApplicationContext context = getWebApplicationContext();
+        Environment env = context.getEnvironment();
+        if (!env.getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, false)) {
+            return;
+        }
+        virtualThreads = VirtualThreads.factory("cinhub-vt-");
+        if (virtualThreads == null) {
+            log.warn("Threads virtuels indisponibles sur Java {} : exécution sur les threads du conteneur",
+                    Runtime.version().feature());
+            return;
+        }
+
+        int maxConcurrency = env.getProperty(PROPERTY_PREFIX + "max-concurrency", Integer.class,
+                env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        acquireTimeoutMillis = env.getProperty(PROPERTY_PREFIX + "acquire-timeout", Long.class, 5000L);
+        // Sémaphore équitable : les requêtes en attente sont servies dans l'ordre d'arrivée
+        permits = new Semaphore(maxConcurrency, true);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        context.getBeanProvider(MeterRegistry.class).ifAvailable(registry -> {
+            Gauge.builder("cinhub.virtual_threads.requests.active", permits, p -> maxConcurrency - p.availablePermits())
+                    .description("Requêtes en cours d'exécution sur un thread virtuel")
+                    .register(registry);
+            Gauge.builder("cinhub.virtual_threads.requests.waiting", permits, Semaphore::getQueueLength)
+                    .description("Requêtes en attente d'une place d'exécution")
+                    .register(registry);
+            rejected = Counter.builder("cinhub.virtual_threads.requests.rejected")
+                    .description("Requêtes refusées (503) faute de place dans le délai imparti")
+                    .register(registry);
+        });
+        log.info("Exécution des requêtes sur threads virtuels (au plus {} simultanées, attente max {} ms)",
+                maxConcurrency, acquireTimeoutMillis);
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (virtualThreads == null || VirtualThreads.isVirtual(Thread.currentThread()) || !request.isAsyncSupported()) {
+            super.service(request, response);
+            return;
+        }
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(EXECUTED_ATTRIBUTE) != null) {
+            // Retour sur le conteneur après exécution : la réponse est déjà écrite
+            return;
+        }
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            super.service(request, response);
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        // Le délai est porté par le sémaphore et les requêtes SQL, pas par le conteneur
+        asyncContext.setTimeout(0);
+        virtualThreads.newThread(() -> execute(asyncContext, request, response)).start();
+    }
+
+    private void execute(AsyncContext asyncContext, HttpServletRequest request, HttpServletResponse response) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                reject(request, response);
+                return;
+            }
+            try {
+                super.service(request, response);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(request, response);
+        } catch (Exception e) {
+            log.error("Échec du traitement de {} {} sur thread virtuel", request.getMethod(), request.getRequestURI(), e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        } finally {
+            request.setAttribute(EXECUTED_ATTRIBUTE, Boolean.TRUE);
+            asyncContext.dispatch();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) {
+        if (rejected != null) {
+            rejected.increment();
+        }
+        log.warn("Requête {} {} refusée : aucune place d'exécution libérée en {} ms",
+                request.getMethod(), request.getRequestURI(), acquireTimeoutMillis);
+        if (response.isCommitted()) {
+            return;
+        }
+        response.reset();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", "Service surchargé");
+        error.put("message", "Trop de requêtes en cours, veuillez réessayer");
+        error.put("path", request.getRequestURI());
+        try {
+            objectMapper.writeValue(response.getOutputStream(), error);
+        } catch (IOException e) {
+            log.debug("Impossible d'écrire la réponse 503 : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Accès par réflexion à l'API des threads virtuels, le code étant compilé pour Java 17.
+     */
+    private static final class VirtualThreads {
+
+        private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+        private static ThreadFactory factory(String prefix) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        private static boolean isVirtual(Thread thread) {
+            if (IS_VIRTUAL == null) {
+                return false;
+            }
+            try {
+                return (boolean) IS_VIRTUAL.invokeExact(thread);
+            } catch (Throwable e) {
+                return false;
+            }
+        }
+
+        private static MethodHandle isVirtualHandle() {
+            try {
+                return MethodHandles.publicLookup()
+                        .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+    }
+}
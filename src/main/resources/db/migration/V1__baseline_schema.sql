@@ -0,0 +1,44 @@
+-- Schéma initial, tel que le générait hbm2ddl=update.
+-- Sur une base existante sans historique Flyway, cette version sert de ligne de base
+-- (baselineOnMigrate) et n'est pas rejouée ; les IF NOT EXISTS la rendent sans effet sinon.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id_category BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    created_at  DATE,
+    updated_at  DATETIME(6),
+    version     BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_category),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS directors (
+    id_director BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    nationality VARCHAR(255) NOT NULL,
+    birth_date  DATE         NOT NULL,
+    biography   TEXT,
+    created_at  DATE,
+    updated_at  DATETIME(6),
+    version     BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_director)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS films (
+    id_film      BIGINT       NOT NULL AUTO_INCREMENT,
+    title        VARCHAR(255) NOT NULL,
+    release_year INT          NOT NULL,
+    duration     INT          NOT NULL,
+    synopsis     TEXT,
+    rating       DOUBLE,
+    director_id  BIGINT       NOT NULL,
+    category_id  BIGINT       NOT NULL,
+    created_at   DATE,
+    updated_at   DATETIME(6),
+    version      BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_film),
+    CONSTRAINT fk_films_director FOREIGN KEY (director_id) REFERENCES directors (id_director),
+    CONSTRAINT fk_films_category FOREIGN KEY (category_id) REFERENCES categories (id_category)
+) ENGINE = InnoDB;
@@ -0,0 +1,32 @@
+-- Bases créées par hbm2ddl avant l'ajout du verrouillage optimiste :
+-- updated_at était un DATE (hbm2ddl=update ne change jamais un type existant)
+-- et la colonne version peut manquer. MySQL n'ayant pas d'ADD COLUMN IF NOT EXISTS,
+-- l'instruction est choisie d'après information_schema.
+
+ALTER TABLE categories MODIFY COLUMN updated_at DATETIME(6);
+ALTER TABLE directors MODIFY COLUMN updated_at DATETIME(6);
+ALTER TABLE films MODIFY COLUMN updated_at DATETIME(6);
+
+SET @ddl := IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'categories' AND COLUMN_NAME = 'version') = 0,
+               'ALTER TABLE categories ADD COLUMN version BIGINT NOT NULL DEFAULT 0',
+               'ALTER TABLE categories MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl := IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'directors' AND COLUMN_NAME = 'version') = 0,
+               'ALTER TABLE directors ADD COLUMN version BIGINT NOT NULL DEFAULT 0',
+               'ALTER TABLE directors MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl := IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'films' AND COLUMN_NAME = 'version') = 0,
+               'ALTER TABLE films ADD COLUMN version BIGINT NOT NULL DEFAULT 0',
+               'ALTER TABLE films MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,26 @@
+-- Index conçus pour les requêtes de FilmRepository et DirectorRepository.
+-- Les recherches LIKE '%...%' (titre, noms) ne peuvent pas utiliser un B-tree :
+-- elles passent par les index de trigrammes en mémoire.
+
+-- existsByTitle, findByTitle, findTitleViewsByTitleIn (import massif)
+CREATE INDEX idx_films_title ON films (title);
+
+-- findDtosByReleaseYear, findByReleaseYearBetween
+CREATE INDEX idx_films_release_year ON films (release_year);
+
+-- findDtosByMinRating (parcours d'intervalle rating >= ?)
+CREATE INDEX idx_films_rating ON films (rating);
+
+-- findDtosByDirectorId, countByDirectorId ; sert aussi d'index à la clé étrangère
+-- et aux filtres réalisateur + année
+CREATE INDEX idx_films_director_year ON films (director_id, release_year);
+
+-- findDtosByCategoryId, countByCategoryId ; filtres catégorie + note minimale
+CREATE INDEX idx_films_category_rating ON films (category_id, rating);
+
+-- existsByFullName et findByFirstNameAndLastName comparent LOWER(first_name) et
+-- LOWER(last_name) : index fonctionnel (MySQL 8.0.13+) sur les mêmes expressions
+CREATE INDEX idx_directors_full_name_ci ON directors ((LOWER(last_name)), (LOWER(first_name)));
+
+-- findDtosByNationality
+CREATE INDEX idx_directors_nationality ON directors (nationality);
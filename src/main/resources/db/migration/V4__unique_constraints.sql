@@ -0,0 +1,13 @@
+-- Contraintes d'unicité appliquées par la base : garde finale derrière les contrôles
+-- existsBy* et leurs préfiltres en mémoire (écritures concurrentes, autres instances).
+-- Les doublons éventuels doivent être résolus avant cette migration.
+
+-- Titre de film (collation insensible à la casse et aux accents, comme existsByTitle)
+ALTER TABLE films
+    DROP INDEX idx_films_title,
+    ADD CONSTRAINT uk_films_title UNIQUE (title);
+
+-- Nom complet du réalisateur, sur les mêmes expressions que existsByFullName
+ALTER TABLE directors
+    DROP INDEX idx_directors_full_name_ci,
+    ADD UNIQUE INDEX uk_directors_full_name_ci ((LOWER(last_name)), (LOWER(first_name)));
@@ -0,0 +1,88 @@
+package com.cinhub.config;
+
+import com.cinhub.controller.FilmController;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contextes racine et web démarrés comme par {@link WebAppInitializer} : les contrôleurs
+ * n'existent que dans le contexte web, et l'index des composants les recense.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContextHierarchyTest {
+
+    private static final String CONTROLLER_PACKAGE = FilmController.class.getPackageName();
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            "spring.datasource.url", "jdbc:h2:mem:context-hierarchy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name", "org.h2.Driver",
+            "spring.datasource.username", "sa",
+            "spring.datasource.password", "",
+            "spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "spring.flyway.enabled", "false",
+            "spring.jpa.hibernate.ddl-auto", "create");
+
+    private AnnotationConfigWebApplicationContext root;
+    private AnnotationConfigWebApplicationContext web;
+
+    @BeforeAll
+    void startContexts() {
+        PROPERTIES.forEach(System::setProperty);
+        MockServletContext servletContext = new MockServletContext();
+        root = new TimedWebApplicationContext("contexte racine");
+        root.setServletContext(servletContext);
+        root.register(AppConfig.class);
+        root.refresh();
+
+        web = new TimedWebApplicationContext("contexte web");
+        web.setParent(root);
+        web.setServletContext(servletContext);
+        web.register(WebConfig.class);
+        web.refresh();
+    }
+
+    @AfterAll
+    void closeContexts() {
+        web.close();
+        root.close();
+        PROPERTIES.keySet().forEach(System::clearProperty);
+    }
+
+    @Test
+    void controllersLiveOnlyInWebContext() {
+        assertEquals(0, root.getBeanNamesForAnnotation(Controller.class).length,
+                () -> "Contrôleurs dans le contexte racine : " + Arrays.toString(root.getBeanNamesForAnnotation(Controller.class)));
+        assertEquals(0, root.getBeanNamesForType(WebConfig.class).length);
+        assertTrue(web.getBeanNamesForAnnotation(Controller.class).length > 0);
+    }
+
+    @Test
+    void componentIndexListsEveryController() {
+        CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(getClass().getClassLoader());
+        assertNotNull(index, "META-INF/spring.components absent");
+
+        Set<String> indexed = index.getCandidateTypes(CONTROLLER_PACKAGE, Component.class.getName());
+        assertFalse(indexed.isEmpty());
+        for (String name : web.getBeanNamesForAnnotation(Controller.class)) {
+            String type = web.getType(name).getName();
+            assertTrue(indexed.contains(type), () -> type + " absent de spring.components");
+        }
+    }
+}
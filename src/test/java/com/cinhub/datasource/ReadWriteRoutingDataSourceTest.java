@@ -0,0 +1,215 @@
+package com.cinhub.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aiguillage primaire / réplica sur deux bases H2 en mémoire, derrière la même pile que
+ * l'application : LazyConnectionDataSourceProxy, EntityManagerFactory Hibernate et
+ * JpaTransactionManager. Chaque base contient une table {@code node} qui donne son nom,
+ * le réplica une table de statut de réplication dont le retard est modifiable.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final long MAX_LAG_SECONDS = 5;
+    private static final long WAIT_MILLIS = 5000;
+
+    private HikariDataSource primary;
+    private HikariDataSource replicaPool;
+    private ReplicaDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary");
+        replicaPool = pool("replica");
+        init(primary, "primary");
+        init(replicaPool, "replica");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replicaPool);
+        replicaJdbc.execute("CREATE TABLE replication_status (seconds_behind BIGINT)");
+        replicaJdbc.update("INSERT INTO replication_status VALUES (0)");
+        replicaJdbc.execute("CREATE ALIAS SLEEP FOR 'java.lang.Thread.sleep'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (entityManagerFactory != null) {
+            entityManagerFactory.destroy();
+        }
+        routing.destroy();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        start("SELECT seconds_behind FROM replication_status");
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        start("SELECT seconds_behind FROM replication_status");
+        readWrite.executeWithoutResult(status -> entityManager
+                .createNativeQuery("INSERT INTO film_write (title) VALUES ('Vertigo')")
+                .executeUpdate());
+
+        assertEquals(1, count(primary));
+        assertEquals(0, count(replicaPool));
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readOnlyParticipatingInReadWriteTransactionUsesPrimary() {
+        start("SELECT seconds_behind FROM replication_status");
+        assertEquals("primary", readWrite.execute(status -> readOnly.execute(inner -> currentNode())));
+    }
+
+    @Test
+    void queryOutsideTransactionUsesPrimary() {
+        start("SELECT seconds_behind FROM replication_status");
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void lagAboveThresholdFallsBackToPrimary() {
+        start("SELECT seconds_behind FROM replication_status");
+        setReplicaLag(MAX_LAG_SECONDS + 1);
+        assertFalse(replica.isAvailable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        setReplicaLag(MAX_LAG_SECONDS);
+        assertTrue(replica.isAvailable());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void stoppedReplicationFallsBackToPrimary() {
+        start("SELECT seconds_behind FROM replication_status");
+        new JdbcTemplate(replicaPool).update("UPDATE replication_status SET seconds_behind = NULL");
+        replica.checkHealth();
+
+        assertFalse(replica.isAvailable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        start("SELECT seconds_behind FROM replication_status");
+        replicaPool.close();
+        replica.checkHealth();
+
+        assertFalse(replica.isAvailable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void slowReplicaCheckDoesNotDelayStartup() {
+        long begin = System.currentTimeMillis();
+        routing = routing("SELECT seconds_behind FROM replication_status WHERE SLEEP(1000) IS NULL");
+        routing.afterPropertiesSet();
+        long startupMillis = System.currentTimeMillis() - begin;
+        createJpa();
+
+        assertTrue(startupMillis < 500, () -> "Démarrage retardé de " + startupMillis + " ms");
+        assertFalse(replica.isAvailable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        awaitUntil(replica::isAvailable);
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    private void start(String lagQuery) {
+        routing = routing(lagQuery);
+        routing.afterPropertiesSet();
+        createJpa();
+        awaitUntil(replica::isAvailable);
+    }
+
+    private ReadWriteRoutingDataSource routing(String lagQuery) {
+        replica = new ReplicaDataSource("replica-1", replicaPool, lagQuery, "seconds_behind", MAX_LAG_SECONDS);
+        return new ReadWriteRoutingDataSource(primary, List.of(replica), 60_000);
+    }
+
+    private void createJpa() {
+        HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        vendorAdapter.setDatabasePlatform("org.hibernate.dialect.H2Dialect");
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(new LazyConnectionDataSourceProxy(routing));
+        entityManagerFactory.setJpaVendorAdapter(vendorAdapter);
+        entityManagerFactory.setPackagesToScan(getClass().getPackageName());
+        entityManagerFactory.afterPropertiesSet();
+
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String currentNode() {
+        return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+    }
+
+    private void setReplicaLag(long seconds) {
+        new JdbcTemplate(replicaPool).update("UPDATE replication_status SET seconds_behind = ?", seconds);
+        replica.checkHealth();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition non atteinte en " + WAIT_MILLIS + " ms");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static int count(HikariDataSource dataSource) {
+        Integer count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM film_write", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private static void init(HikariDataSource dataSource, String name) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node VALUES (?)", name);
+        template.execute("CREATE TABLE film_write (title VARCHAR(100))");
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID());
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(2);
+        config.setPoolName(name);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,96 @@
+package com.cinhub.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ventilation du démarrage sur une horloge manuelle : temps propre des beans, totaux par
+ * phase, étapes restées ouvertes et étapes publiées par un autre thread.
+ */
+class StartupTimelineTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final StartupTimeline timeline = new StartupTimeline("contexte de test", nanos::get);
+
+    @Test
+    void reportsSelfTimeAndPhaseTotals() throws InterruptedException {
+        StartupStep refresh = timeline.start("spring.context.refresh");
+
+        StartupStep postProcess = timeline.start("spring.context.beans.post-process");
+        advance(10);
+        postProcess.end();
+
+        // Le bean « dependance » est créé pendant la construction de « service »
+        StartupStep service = timeline.start("spring.beans.instantiate").tag("beanName", "service");
+        advance(5);
+        StartupStep dependency = timeline.start("spring.beans.instantiate").tag("beanName", "dependance");
+        advance(10);
+        dependency.end();
+        advance(15);
+        service.end();
+
+        StartupStep repository = timeline.start("spring.beans.instantiate").tag("beanName", "repository");
+        advance(4);
+        repository.end();
+
+        // Étape restée ouverte (exception) : close avec celle qui l'englobe
+        StartupStep events = timeline.start("spring.context.refresh-events");
+        timeline.start("spring.event.invoke-listener");
+        advance(6);
+        events.end();
+
+        Thread other = new Thread(() -> timeline.start("etape.autre.thread").end());
+        other.start();
+        other.join();
+
+        advance(5);
+        assertNull(timeline.getReport());
+        refresh.end();
+
+        String report = timeline.getReport();
+        assertLine(report, "Démarrage du contexte de test en 55 ms");
+        assertLine(report, "spring.context.beans.post-process\\s+10 ms");
+        assertLine(report, "spring.beans.instantiate\\s+34 ms \\(2 étapes\\)");
+        assertLine(report, "spring.context.refresh-events\\s+6 ms");
+        assertLine(report, "autres \\(chargement, événements de fin\\)\\s+5 ms");
+        assertLine(report, "3 bean\\(s\\) instancié\\(s\\)");
+        assertLine(report, "service\\s+20 ms");
+        assertLine(report, "dependance\\s+10 ms");
+        assertLine(report, "repository\\s+4 ms");
+        assertFalse(report.contains("spring.event.invoke-listener"));
+        assertFalse(report.contains("etape.autre.thread"));
+    }
+
+    @Test
+    void ignoresStepsAfterRefresh() {
+        StartupStep refresh = timeline.start("spring.context.refresh");
+        advance(3);
+        refresh.end();
+        String report = timeline.getReport();
+
+        StartupStep lazyBean = timeline.start("spring.beans.instantiate").tag("beanName", "paresseux");
+        advance(50);
+        lazyBean.end();
+
+        assertSame(report, timeline.getReport());
+        assertFalse(report.contains("paresseux"));
+    }
+
+    private void advance(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static void assertLine(String report, String regex) {
+        assertTrue(Pattern.compile("(?m)^\\s*" + regex).matcher(report).find(),
+                () -> "« " + regex + " » absent du rapport :\n" + report);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cinhub.search;
+
+import com.cinhub.dto.CategoryDTO;
+import com.cinhub.dto.DirectorDTO;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.dto.FilmFacetFilterDTO;
+import com.cinhub.event.ChangeType;
+import com.cinhub.event.FilmChangedEvent;
+import com.cinhub.repository.CategoryRepository;
+import com.cinhub.repository.DirectorRepository;
+import com.cinhub.repository.FilmFacet;
+import com.cinhub.repository.FilmFacetCounts;
+import com.cinhub.repository.FilmRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Identifiants de films au-delà de la plage des entiers 32 bits : les bitmaps portent des
+ * ordinaux, pas les identifiants eux-mêmes.
+ */
+class FilmFacetIndexTest {
+
+    private static final long FIRST_ID = Integer.MAX_VALUE + 1L;
+    // Même 32 bits de poids faible que FIRST_ID : une troncature confondrait les deux films
+    private static final long SECOND_ID = FIRST_ID + (1L << 32);
+
+    private final FilmFacetIndex index = new FilmFacetIndex(mock(FilmRepository.class),
+            mock(DirectorRepository.class), mock(CategoryRepository.class));
+
+    @Test
+    void countsFilmsWhoseIdsExceedIntRange() {
+        index.onFilmChanged(created(FIRST_ID, 1L, 1994, 8.5));
+        index.onFilmChanged(created(SECOND_ID, 2L, 1994, 7.0));
+        index.onFilmChanged(created(3L, 1L, 2001, 8.0));
+
+        FilmFacetCounts counts = index.count(new FilmFacetFilterDTO());
+        assertEquals(3, counts.getTotal());
+        assertEquals(Map.of(1L, 2L, 2L, 1L), counts.get(FilmFacet.CATEGORY));
+        assertEquals(Map.of(1990, 2L, 2000, 1L), counts.get(FilmFacet.DECADE));
+
+        FilmFacetCounts category = index.count(FilmFacetFilterDTO.builder().categoryIds(List.of(2L)).build());
+        assertEquals(1, category.getTotal());
+        assertEquals(Map.of(1990, 1L), category.get(FilmFacet.DECADE));
+    }
+
+    @Test
+    void updateAndDeletionKeepTheirOrdinal() {
+        index.onFilmChanged(created(FIRST_ID, 1L, 1994, 8.5));
+        index.onFilmChanged(created(SECOND_ID, 1L, 1994, 7.0));
+
+        index.onFilmChanged(new FilmChangedEvent(ChangeType.UPDATED, FIRST_ID, film(FIRST_ID, 2L, 1994, 8.5), 1));
+        assertEquals(Map.of(1L, 1L, 2L, 1L), index.count(new FilmFacetFilterDTO()).get(FilmFacet.CATEGORY));
+
+        index.onFilmChanged(new FilmChangedEvent(ChangeType.DELETED, SECOND_ID, null, 2));
+        FilmFacetCounts counts = index.count(new FilmFacetFilterDTO());
+        assertEquals(1, counts.getTotal());
+        assertEquals(Map.of(2L, 1L), counts.get(FilmFacet.CATEGORY));
+    }
+
+    private static FilmChangedEvent created(long idFilm, Long idCategory, int releaseYear, double rating) {
+        return new FilmChangedEvent(ChangeType.CREATED, idFilm, film(idFilm, idCategory, releaseYear, rating), 0);
+    }
+
+    private static FilmDTO film(long idFilm, Long idCategory, int releaseYear, double rating) {
+        return FilmDTO.builder()
+                .idFilm(idFilm)
+                .title("Film " + idFilm)
+                .releaseYear(releaseYear)
+                .rating(rating)
+                .category(CategoryDTO.builder().idCategory(idCategory).build())
+                .director(DirectorDTO.builder().idDirector(1L).nationality("Française").build())
+                .build();
+    }
+}
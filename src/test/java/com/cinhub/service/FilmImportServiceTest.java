@@ -0,0 +1,121 @@
+package com.cinhub.service;
+
+import com.cinhub.config.AppConfig;
+import com.cinhub.dto.BulkFilmResultDTO;
+import com.cinhub.dto.BulkImportReportDTO;
+import com.cinhub.dto.FilmCreateDTO;
+import com.cinhub.search.UniqueKeyFilter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Import massif face à la contrainte uk_films_title. La base H2 compare les titres comme
+ * la collation MySQL (accents et casse ignorés, STRENGTH PRIMARY).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FilmImportServiceTest {
+
+    private static final String DUPLICATE = "Un film avec ce titre existe déjà";
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            "spring.datasource.url", "jdbc:h2:mem:film-import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                    + "INIT=SET COLLATION FRENCH STRENGTH PRIMARY",
+            "spring.datasource.driver-class-name", "org.h2.Driver",
+            "spring.datasource.username", "sa",
+            "spring.datasource.password", "",
+            "spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "spring.flyway.enabled", "false",
+            "spring.jpa.hibernate.ddl-auto", "create");
+
+    private AnnotationConfigWebApplicationContext context;
+    private FilmImportService importService;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void startContext() {
+        PROPERTIES.forEach(System::setProperty);
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(AppConfig.class);
+        context.refresh();
+
+        importService = context.getBean(FilmImportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO categories (name, version) VALUES ('Comédie', 0)");
+        jdbcTemplate.update("INSERT INTO directors (first_name, last_name, nationality, birth_date, version) "
+                + "VALUES ('Jean-Pierre', 'Jeunet', 'Française', ?, 0)", Date.valueOf(LocalDate.of(1953, 9, 3)));
+    }
+
+    @AfterAll
+    void closeContext() {
+        context.close();
+        PROPERTIES.keySet().forEach(System::clearProperty);
+    }
+
+    @Test
+    void accentVariantOfExistingTitleIsRejectedAlone() {
+        importService.importFilms(List.of(film("Le Fabuleux Destin d'Amélie Poulain")).iterator());
+
+        BulkImportReportDTO report = importService.importFilms(List.of(
+                film("LE FABULEUX DESTIN D'AMELIE POULAIN"),
+                film("Delicatessen")).iterator());
+
+        assertEquals(List.of(DUPLICATE, "CREATED"), outcomes(report));
+    }
+
+    @Test
+    void accentVariantsWithinChunkKeepFirstOnly() {
+        BulkImportReportDTO report = importService.importFilms(List.of(
+                film("La Cité des enfants perdus"),
+                film("La Cite des Enfants Perdus"),
+                film("Alien, la résurrection")).iterator());
+
+        assertEquals(List.of("CREATED", DUPLICATE, "CREATED"), outcomes(report));
+    }
+
+    @Test
+    void duplicateMissedByPreCheckOnlyRejectsItsRow() {
+        // Écriture concurrente : titre absent du préfiltre, donc non vérifié en base avant l'insertion
+        jdbcTemplate.update("INSERT INTO films (title, release_year, duration, director_id, category_id, version) "
+                + "VALUES ('Micmacs à tire-larigot', 2009, 105, 1, 1, 0)");
+        assertFalse(context.getBean(UniqueKeyFilter.class).mightContainFilmTitle("Micmacs a tire-larigot"));
+
+        BulkImportReportDTO report = importService.importFilms(List.of(
+                film("Un long dimanche de fiançailles"),
+                film("Micmacs a tire-larigot"),
+                film("L'Extravagant Voyage du jeune et prodigieux T.S. Spivet")).iterator());
+
+        assertEquals(List.of("CREATED", DUPLICATE, "CREATED"), outcomes(report));
+        assertEquals(2, report.getCreated());
+    }
+
+    private static List<String> outcomes(BulkImportReportDTO report) {
+        return report.getResults().stream()
+                .map(result -> result.getStatus() == BulkFilmResultDTO.Status.CREATED ? "CREATED" : result.getError())
+                .collect(Collectors.toList());
+    }
+
+    private static FilmCreateDTO film(String title) {
+        return FilmCreateDTO.builder()
+                .title(title)
+                .releaseYear(2001)
+                .duration(120)
+                .directorId(1L)
+                .categoryId(1L)
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.cinhub.service;
+
+import com.cinhub.config.AppConfig;
+import com.cinhub.dto.FilmDTO;
+import com.cinhub.entity.Film;
+import com.cinhub.mapper.FilmMapper;
+import com.cinhub.repository.FilmRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Nombre de requêtes SQL des lectures de listes de films, sur H2 (mode MySQL) : ni le
+ * nombre de films ni leurs associations (réalisateur, catégorie) ne doivent l'augmenter.
+ * Couvre le chemin par la copie en colonnes, les lectures servies par la base seule et
+ * les requêtes à graphe d'entités, converties en FilmDTO dans leur transaction : un
+ * chargement paresseux de réalisateur ou de catégorie y ajouterait des requêtes.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FilmServiceQueryCountTest {
+
+    private static final int FILM_COUNT = 60;
+    private static final int DIRECTOR_COUNT = 3;
+    private static final int CATEGORY_COUNT = 3;
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            "spring.datasource.url", "jdbc:h2:mem:query-count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name", "org.h2.Driver",
+            "spring.datasource.username", "sa",
+            "spring.datasource.password", "",
+            "spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            // Scripts Flyway propres à MySQL : le schéma H2 est généré par Hibernate
+            "spring.flyway.enabled", "false",
+            "spring.jpa.hibernate.ddl-auto", "create",
+            "spring.jpa.properties.hibernate.generate_statistics", "true");
+
+    private AnnotationConfigWebApplicationContext context;
+    private FilmService filmService;
+    private FilmRepository filmRepository;
+    private FilmMapper filmMapper;
+    private TransactionTemplate readOnly;
+    private Statistics statistics;
+
+    @BeforeAll
+    void startContext() {
+        PROPERTIES.forEach(System::setProperty);
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(AppConfig.class);
+        context.refresh();
+
+        seed(context.getBean(JdbcTemplate.class));
+        // Copie en colonnes construite sur la base vide au démarrage : même signal qu'au démarrage
+        context.publishEvent(new ContextRefreshedEvent(context));
+
+        filmService = context.getBean(FilmService.class);
+        filmRepository = context.getBean(FilmRepository.class);
+        filmMapper = context.getBean(FilmMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    void closeContext() {
+        context.close();
+        PROPERTIES.keySet().forEach(System::clearProperty);
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void searchByYearRunsOneQuery() {
+        assertQueries(1, () -> filmService.searchFilmsByYear(2001));
+    }
+
+    @Test
+    void searchByMinRatingRunsOneQuery() {
+        assertQueries(1, () -> filmService.searchFilmsByMinRating(5.0));
+    }
+
+    @Test
+    void directorFilmographyRunsExistenceCheckAndOneQuery() {
+        assertQueries(2, () -> filmService.getFilmsByDirector(2L));
+    }
+
+    @Test
+    void categoryFilmsRunExistenceCheckAndOneQuery() {
+        assertQueries(2, () -> filmService.searchFilmsByCategory(3L));
+    }
+
+    @Test
+    void fallbackQueriesLoadAssociationsInTheSameStatement() {
+        assertQueries(1, () -> filmRepository.findDtosByReleaseYear(2001));
+        assertQueries(1, () -> filmRepository.findDtosByMinRating(5.0));
+        assertQueries(1, () -> filmRepository.findDtosByDirectorId(2L));
+        assertQueries(1, () -> filmRepository.findDtosByCategoryId(3L));
+    }
+
+    @Test
+    void directorServiceFilmographyRunsExistenceCheckAndOneQuery() {
+        DirectorService directorService = context.getBean(DirectorService.class);
+        assertQueries(2, () -> directorService.getDirectorFilmography(2L));
+    }
+
+    @Test
+    void categoryServiceFilmsRunExistenceCheckAndOneQuery() {
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        assertQueries(2, () -> categoryService.getCategoryFilms(3L));
+    }
+
+    @Test
+    void filmPageRunsOneQuery() {
+        assertQueries(1, () -> filmService.getAllFilms(null, 20).getItems());
+    }
+
+    @Test
+    void titleSearchServedByDatabaseRunsOneQuery() {
+        // Requête plus courte qu'un trigramme : l'index est contourné au profit de la base
+        assertQueries(1, () -> filmService.searchFilmsByTitle("lm", 20));
+    }
+
+    @Test
+    void entityGraphQueriesLoadAssociationsInTheSameStatement() {
+        assertEntityQueries(() -> filmRepository.findByDirectorId(2L));
+        assertEntityQueries(() -> filmRepository.findByCategoryId(3L));
+        assertEntityQueries(() -> filmRepository.findByTitleContainingIgnoreCase("film 1"));
+        assertEntityQueries(() -> filmRepository.findByReleaseYear(2001));
+        assertEntityQueries(() -> filmRepository.findByRatingGreaterThanEqual(5.0));
+        assertEntityQueries(() -> filmRepository.findByReleaseYearBetween(2000, 2001));
+        assertEntityQueries(() -> filmRepository.findAllWithDetails());
+    }
+
+    private void assertEntityQueries(Supplier<List<Film>> query) {
+        assertQueries(1, () -> readOnly.execute(status ->
+                query.get().stream().map(filmMapper::toDTO).collect(Collectors.toList())));
+    }
+
+    private void assertQueries(long expected, Supplier<List<FilmDTO>> read) {
+        statistics.clear();
+        List<FilmDTO> films = read.get();
+
+        assertFalse(films.isEmpty());
+        films.forEach(film -> {
+            assertNotNull(film.getDirector());
+            assertNotNull(film.getCategory());
+        });
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                () -> films.size() + " film(s) lus en " + statistics.getPrepareStatementCount() + " requête(s)");
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name, version) VALUES (?, 0)",
+                IntStream.rangeClosed(1, CATEGORY_COUNT).boxed().toList(), CATEGORY_COUNT,
+                (ps, i) -> ps.setString(1, "Catégorie " + i));
+        jdbcTemplate.batchUpdate("INSERT INTO directors (first_name, last_name, nationality, birth_date, version) "
+                        + "VALUES (?, ?, ?, ?, 0)",
+                IntStream.rangeClosed(1, DIRECTOR_COUNT).boxed().toList(), DIRECTOR_COUNT, (ps, i) -> {
+                    ps.setString(1, "Prénom" + i);
+                    ps.setString(2, "Nom" + i);
+                    ps.setString(3, "Française");
+                    ps.setDate(4, Date.valueOf(LocalDate.of(1950 + i, 1, 1)));
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO films (title, release_year, duration, rating, director_id, category_id, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, 0)",
+                IntStream.rangeClosed(1, FILM_COUNT).boxed().toList(), FILM_COUNT, (ps, i) -> {
+                    ps.setString(1, "Film " + i);
+                    ps.setInt(2, 2000 + i % 3);
+                    ps.setInt(3, 90 + i % 30);
+                    ps.setDouble(4, (i % 10) * 1.0);
+                    ps.setLong(5, 1 + i % DIRECTOR_COUNT);
+                    ps.setLong(6, 1 + i % CATEGORY_COUNT);
+                });
+    }
+}